@@ -3,9 +3,11 @@ package com.flick.business;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @ComponentScan(basePackages = "com.flick.business")
+@EnableScheduling
 public class SgvsApiApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,32 @@
+package com.flick.business.api.controller;
+
+import java.util.function.Supplier;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.flick.business.service.DataVersionService;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Conditional GET for read endpoints whose payload only depends on the
+ * request and the tenant's data version. A matching If-None-Match is answered
+ * with 304 before the body is computed, so no query runs.
+ */
+final class ConditionalResponses {
+
+    private ConditionalResponses() {
+    }
+
+    static <T> ResponseEntity<T> versioned(ServletWebRequest webRequest, DataVersionService dataVersionService,
+            Supplier<T> body) {
+        HttpServletRequest request = webRequest.getRequest();
+        String etag = dataVersionService.etag(request.getRequestURI() + "?" + request.getQueryString());
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(body.get());
+    }
+}
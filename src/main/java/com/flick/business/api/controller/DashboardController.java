@@ -2,13 +2,18 @@ package com.flick.business.api.controller;
 
 import com.flick.business.api.dto.response.aministration.DashboardResponse;
 import com.flick.business.service.DashboardService;
+import com.flick.business.service.DashboardStreamService;
+import com.flick.business.service.DataVersionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.ZonedDateTime;
 
@@ -18,13 +23,21 @@ import java.time.ZonedDateTime;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final DataVersionService dataVersionService;
+    private final DashboardStreamService dashboardStreamService;
 
     @GetMapping("/summary")
     public ResponseEntity<DashboardResponse> getDashboardSummary(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime endDate,
+            ServletWebRequest webRequest) {
 
-        DashboardResponse summary = dashboardService.getDashboardSummary(startDate, endDate);
-        return ResponseEntity.ok(summary);
+        return ConditionalResponses.versioned(webRequest, dataVersionService,
+                () -> dashboardService.getDashboardSummary(startDate, endDate));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDashboard() {
+        return dashboardStreamService.subscribe();
     }
 }
\ No newline at end of file
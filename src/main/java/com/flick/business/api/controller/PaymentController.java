@@ -3,10 +3,12 @@ package com.flick.business.api.controller;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.flick.business.api.dto.request.commercial.PaymentRequest;
+import com.flick.business.service.IdempotencyService;
 import com.flick.business.service.PaymentService;
 
 import jakarta.validation.Valid;
@@ -17,10 +19,15 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class PaymentController {
     private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
-    public ResponseEntity<Void> createPayment(@Valid @RequestBody PaymentRequest request) {
-        paymentService.recordPayment(request);
+    public ResponseEntity<Void> createPayment(@Valid @RequestBody PaymentRequest request,
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        idempotencyService.execute("payment", idempotencyKey, request, Void.class, () -> {
+            paymentService.recordPayment(request);
+            return null;
+        });
         return ResponseEntity.noContent().build();
     }
 }
@@ -3,41 +3,82 @@ package com.flick.business.api.controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.flick.business.api.dto.request.reports.ReportJobRequest;
 import com.flick.business.api.dto.response.aministration.reports.AbcAnalysisResponse;
+import com.flick.business.api.dto.response.common.PageResponse;
+import com.flick.business.api.dto.response.reports.FinancialBreakdownResponse;
 import com.flick.business.api.dto.response.reports.FinancialSummaryResponse;
+import com.flick.business.api.dto.response.reports.ReportJobResponse;
+import com.flick.business.service.DataVersionService;
+import com.flick.business.service.ReportJobService;
 import com.flick.business.service.ReportService;
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
+import java.net.URI;
 import java.time.ZonedDateTime;
-import java.util.List;
 
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletWebRequest;
 
 @RestController
 @RequestMapping("/api/reports")
 @RequiredArgsConstructor
 public class ReportController {
     private final ReportService reportService;
+    private final ReportJobService reportJobService;
+    private final DataVersionService dataVersionService;
 
     @GetMapping("/financial-summary")
     public ResponseEntity<FinancialSummaryResponse> getFinancialSummary(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime endDate,
+            ServletWebRequest webRequest) {
 
-        FinancialSummaryResponse summary = reportService.getFinancialSummary(startDate, endDate);
-        return ResponseEntity.ok(summary);
+        return ConditionalResponses.versioned(webRequest, dataVersionService,
+                () -> reportService.getFinancialSummary(startDate, endDate));
+    }
+
+    /** Per-period breakdown of the financial summary: granularity is day, week or month. */
+    @GetMapping(value = "/financial-summary", params = "granularity")
+    public ResponseEntity<FinancialBreakdownResponse> getFinancialBreakdown(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime endDate,
+            @RequestParam String granularity,
+            ServletWebRequest webRequest) {
+        return ConditionalResponses.versioned(webRequest, dataVersionService,
+                () -> reportService.getFinancialBreakdown(startDate, endDate, granularity));
     }
 
     @GetMapping("/abc-analysis")
-    public ResponseEntity<List<AbcAnalysisResponse>> getAbcAnalisys(
+    public ResponseEntity<PageResponse<AbcAnalysisResponse>> getAbcAnalisys(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime endDate) {
-        List<AbcAnalysisResponse> report = reportService.getAbcAnalisys(startDate, endDate);
-        return ResponseEntity.ok(report);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime endDate,
+            @RequestParam(required = false) String abcClass,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + ReportService.DEFAULT_ABC_PAGE_SIZE) int size,
+            ServletWebRequest webRequest) {
+        return ConditionalResponses.versioned(webRequest, dataVersionService,
+                () -> reportService.getAbcAnalisys(startDate, endDate, abcClass, page, size));
+    }
+
+    /** Queues a report and answers at once; poll the returned job until it is COMPLETED. */
+    @PostMapping("/jobs")
+    public ResponseEntity<ReportJobResponse> submitReportJob(@Valid @RequestBody ReportJobRequest request) {
+        ReportJobResponse job = reportJobService.submit(request);
+        return ResponseEntity.accepted().location(URI.create("/api/reports/jobs/" + job.id())).body(job);
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ReportJobResponse> getReportJob(@PathVariable String id) {
+        return ResponseEntity.ok(reportJobService.findById(id));
     }
 
 }
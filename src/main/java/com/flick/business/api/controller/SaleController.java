@@ -1,16 +1,25 @@
 package com.flick.business.api.controller;
 
+import com.flick.business.api.dto.request.commercial.SaleBulkDeleteRequest;
 import com.flick.business.api.dto.request.commercial.SaleRequest;
 import com.flick.business.api.dto.response.commercial.SaleResponse;
+import com.flick.business.api.dto.response.common.CursorPageResponse;
 import com.flick.business.api.dto.response.common.PageResponse;
 import com.flick.business.api.dto.response.common.GroupSummary;
 import com.flick.business.api.dto.response.common.TotalByPaymentMethod;
+import com.flick.business.service.DataVersionService;
+import com.flick.business.service.IdempotencyService;
+import com.flick.business.service.SaleExportService;
 import com.flick.business.service.SaleService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.math.BigDecimal;
@@ -24,12 +33,17 @@ import java.util.List;
 public class SaleController {
 
     private final SaleService saleService;
+    private final IdempotencyService idempotencyService;
+    private final SaleExportService saleExportService;
+    private final DataVersionService dataVersionService;
 
     @PostMapping
     public ResponseEntity<SaleResponse> registerSale(
             @Valid @RequestBody SaleRequest request,
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             UriComponentsBuilder uriBuilder) {
-        SaleResponse savedSale = saleService.registerSale(request);
+        SaleResponse savedSale = idempotencyService.execute("sale", idempotencyKey, request, SaleResponse.class,
+                () -> saleService.registerSale(request));
         URI uri = uriBuilder.path("/api/sales/{id}").buildAndExpand(savedSale.id()).toUri();
         return ResponseEntity.created(uri).body(savedSale);
     }
@@ -52,6 +66,42 @@ public class SaleController {
         return ResponseEntity.ok(salesPage);
     }
 
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageResponse<SaleResponse>> listSalesByCursor(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime endDate,
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) String paymentMethod,
+            @RequestParam(required = false) String paymentStatus,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) String orderBy,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(saleService.listByCursor(startDate, endDate, customerId, paymentMethod,
+                paymentStatus, productId, orderBy, cursor, size));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportSales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime endDate,
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) String paymentMethod,
+            @RequestParam(required = false) String paymentStatus,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        SaleExportService.ExportFormat exportFormat = SaleExportService.ExportFormat.from(format);
+        StreamingResponseBody body = saleExportService.export(startDate, endDate, customerId, paymentMethod,
+                paymentStatus, productId, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("sales." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
     @GetMapping("/gross-total")
     public ResponseEntity<BigDecimal> getGrossTotal(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime startDate,
@@ -59,18 +109,20 @@ public class SaleController {
             @RequestParam(required = false) Long customerId,
             @RequestParam(required = false) String paymentMethod,
             @RequestParam(required = false) String paymentStatus,
-            @RequestParam(required = false) Long productId) {
-        BigDecimal total = saleService.getGrossTotal(startDate, endDate, customerId, paymentMethod, paymentStatus,
-                productId);
-        return ResponseEntity.ok(total);
+            @RequestParam(required = false) Long productId,
+            ServletWebRequest webRequest) {
+        return ConditionalResponses.versioned(webRequest, dataVersionService,
+                () -> saleService.getGrossTotal(startDate, endDate, customerId, paymentMethod, paymentStatus,
+                        productId));
     }
 
     @GetMapping("/total-by-payment-method")
     public ResponseEntity<List<TotalByPaymentMethod>> getTotalsByPaymentMethod(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime endDate) {
-        List<TotalByPaymentMethod> totals = saleService.getTotalByPaymentMethods(startDate, endDate);
-        return ResponseEntity.ok(totals);
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime endDate,
+            ServletWebRequest webRequest) {
+        return ConditionalResponses.versioned(webRequest, dataVersionService,
+                () -> saleService.getTotalByPaymentMethods(startDate, endDate));
     }
 
     @GetMapping("/summary-by-group")
@@ -80,10 +132,17 @@ public class SaleController {
             @RequestParam(required = false) Long customerId,
             @RequestParam(required = false) String paymentMethod,
             @RequestParam(required = false) Long productId,
-            @RequestParam String groupBy) {
-        List<GroupSummary> summaries = saleService.getSummaryByGroup(startDate, endDate, customerId, paymentMethod,
-                productId, groupBy);
-        return ResponseEntity.ok(summaries);
+            @RequestParam String groupBy,
+            ServletWebRequest webRequest) {
+        return ConditionalResponses.versioned(webRequest, dataVersionService,
+                () -> saleService.getSummaryByGroup(startDate, endDate, customerId, paymentMethod, productId,
+                        groupBy));
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> deleteSalesPermanently(@Valid @RequestBody SaleBulkDeleteRequest request) {
+        saleService.deleteAllPermanently(request.saleIds());
+        return ResponseEntity.noContent().build();
     }
 
     @DeleteMapping("/{id}/permanent")
@@ -0,0 +1,11 @@
+package com.flick.business.api.dto.request.commercial;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public record SaleBulkDeleteRequest(
+        @NotEmpty @Size(max = 5000, message = "A bulk delete accepts at most 5000 sales.") List<@NotNull Long> saleIds) {
+}
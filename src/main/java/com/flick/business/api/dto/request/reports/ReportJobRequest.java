@@ -0,0 +1,20 @@
+package com.flick.business.api.dto.request.reports;
+
+import java.time.ZonedDateTime;
+
+import com.flick.business.core.enums.ReportType;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Report to run in the background. abcClass, page and size only apply to
+ * ABC_ANALYSIS and default like the synchronous endpoint.
+ */
+public record ReportJobRequest(
+        @NotNull ReportType type,
+        @NotNull ZonedDateTime startDate,
+        @NotNull ZonedDateTime endDate,
+        String abcClass,
+        Integer page,
+        Integer size) {
+}
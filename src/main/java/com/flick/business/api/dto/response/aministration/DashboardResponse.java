@@ -14,5 +14,6 @@ public record DashboardResponse(
         MetricCardData averageTicket,
         List<ChartDataPoint> salesByPaymentMethod,
         List<ChartDataPoint> topSellingProducts,
-        List<TimeSeriesDataPoint> revenueAndProfitTrend) {
+        List<TimeSeriesDataPoint> revenueAndProfitTrend,
+        List<String> staleSections) {
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.flick.business.api.dto.response.aministration;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.flick.business.api.dto.response.common.ChartDataPoint;
+
+/**
+ * Live update of today's dashboard figures. The deltas describe the write
+ * that triggered the event; the totals are authoritative, since a slow client
+ * may skip events.
+ */
+public record DashboardStreamEvent(
+        LocalDate day,
+        BigDecimal revenueDelta,
+        long saleCountDelta,
+        BigDecimal revenueToday,
+        long saleCountToday,
+        BigDecimal averageTicketToday,
+        BigDecimal expensesToday,
+        BigDecimal creditPaymentsToday,
+        ChartDataPoint topProduct) {
+}
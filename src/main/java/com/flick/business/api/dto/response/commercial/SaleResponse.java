@@ -21,6 +21,22 @@ public record SaleResponse(
                 ZonedDateTime saleDate,
                 List<SaleItemResponse> items) {
         public static SaleResponse fromEntity(Sale sale) {
+                return fromEntity(sale, sale.getItems().stream()
+                                .map(item -> new SaleItemResponse(
+                                                item.getId(),
+                                                new ProductSummaryResponse(item.getProduct().getId(),
+                                                                item.getProduct().getName()),
+                                                item.getQuantity(),
+                                                item.getUnitPrice(),
+                                                item.getTotalValue()))
+                                .collect(Collectors.toList()));
+        }
+
+        /**
+         * Builds the response with items that were loaded separately, so the
+         * sale's lazy item collection is never touched.
+         */
+        public static SaleResponse fromEntity(Sale sale, List<SaleItemResponse> items) {
                 return new SaleResponse(
                                 sale.getId(),
                                 sale.getTotalValue(),
@@ -32,14 +48,6 @@ public record SaleResponse(
                                 sale.getPaymentStatus(),
                                 sale.getDescription(),
                                 sale.getSaleDate(),
-                                sale.getItems().stream()
-                                                .map(item -> new SaleItemResponse(
-                                                                item.getId(),
-                                                                new ProductSummaryResponse(item.getProduct().getId(),
-                                                                                item.getProduct().getName()),
-                                                                item.getQuantity(),
-                                                                item.getUnitPrice(),
-                                                                item.getTotalValue()))
-                                                .collect(Collectors.toList()));
+                                items);
         }
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.flick.business.api.dto.response.common;
+
+import java.util.List;
+
+/**
+ * One slice of a keyset-paginated list. Pass {@code nextCursor} back to fetch
+ * the following slice; it is null on the last one.
+ */
+public record CursorPageResponse<T>(
+        List<T> content,
+        int size,
+        String nextCursor,
+        boolean hasNext) {
+}
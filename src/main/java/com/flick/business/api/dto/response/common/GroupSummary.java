@@ -11,4 +11,6 @@ public class GroupSummary {
     private String groupKey;
     private String groupTitle;
     private BigDecimal totalValue;
+    private long saleCount;
+    private BigDecimal itemQuantity;
 }
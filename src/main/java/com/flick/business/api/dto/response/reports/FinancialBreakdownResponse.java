@@ -0,0 +1,12 @@
+package com.flick.business.api.dto.response.reports;
+
+import java.util.List;
+
+import com.flick.business.core.enums.ReportGranularity;
+
+/** Every period of a range in order, periods without activity included, and the total of the range. */
+public record FinancialBreakdownResponse(
+                ReportGranularity granularity,
+                List<FinancialPeriodResponse> periods,
+                FinancialSummaryResponse total) {
+}
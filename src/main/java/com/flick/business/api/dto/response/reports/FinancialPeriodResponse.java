@@ -0,0 +1,13 @@
+package com.flick.business.api.dto.response.reports;
+
+import java.time.LocalDate;
+
+/**
+ * Financial summary of one period, bounded by the requested range: the first
+ * and last periods may be shorter than the granularity.
+ */
+public record FinancialPeriodResponse(
+                LocalDate periodStart,
+                LocalDate periodEnd,
+                FinancialSummaryResponse summary) {
+}
@@ -0,0 +1,23 @@
+package com.flick.business.api.dto.response.reports;
+
+import java.time.ZonedDateTime;
+
+import com.flick.business.core.enums.ReportJobStatus;
+import com.flick.business.core.enums.ReportType;
+
+/**
+ * State of a report job. The result is the same body the synchronous report
+ * endpoint returns, and is only set once the job is COMPLETED; the error is
+ * a short reason, only set once the job is FAILED.
+ */
+public record ReportJobResponse(
+        String id,
+        ReportType type,
+        ReportJobStatus status,
+        ZonedDateTime startDate,
+        ZonedDateTime endDate,
+        ZonedDateTime createdAt,
+        ZonedDateTime completedAt,
+        Object result,
+        String error) {
+}
@@ -13,9 +13,11 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -114,6 +116,10 @@ public class GlobalExceptionHandler {
             case "Invalid credentials." -> "Credenciais inválidas.";
             case "Too many login attempts. Try again later." ->
                     "Muitas tentativas de login. Tente novamente mais tarde.";
+            case "Too many dashboard streams are open. Close one and try again." ->
+                    "Há muitas telas do painel abertas. Feche uma e tente novamente.";
+            case "Too many reports are being generated. Try again later." ->
+                    "Há muitos relatórios sendo gerados. Tente novamente mais tarde.";
             case "Username must have between 3 and 50 characters." ->
                     "Usuário deve ter entre 3 e 50 caracteres.";
             case "Username or email must have between 3 and 100 characters." ->
@@ -148,6 +154,8 @@ public class GlobalExceptionHandler {
                     "Não autorizado: uma ou mais vendas não pertencem à sua conta.";
             case "No sales found for the provided IDs." ->
                     "Nenhuma venda encontrada para os IDs informados.";
+            case "One or more sales are no longer pending payment." ->
+                    "Uma ou mais vendas não estão mais pendentes de pagamento.";
             case "Restocking expenses must contain at least one item." ->
                     "Despesas de reposição devem conter ao menos um item.";
             case "A value greater than zero is required for this type of expense." ->
@@ -160,6 +168,21 @@ public class GlobalExceptionHandler {
                     "Não foi possível gerar o nome automático da despesa de reposição.";
             case "Unable to generate automatic description for restocking expense." ->
                     "Não foi possível gerar a descrição automática da despesa de reposição.";
+            case "Idempotency-Key must have between 1 and 100 characters." ->
+                    "Idempotency-Key deve ter entre 1 e 100 caracteres.";
+            case "Idempotency-Key was already used with a different request." ->
+                    "Idempotency-Key já foi utilizada com uma requisição diferente.";
+            case "A request with this Idempotency-Key is already being processed." ->
+                    "Uma requisição com esta Idempotency-Key já está sendo processada.";
+            case "Cursor pagination supports ordering by date or price only." ->
+                    "A paginação por cursor só permite ordenar por data ou valor.";
+            case "Invalid cursor." -> "Cursor inválido.";
+            case "The range has too many periods for this granularity." ->
+                    "O período tem intervalos demais para esta granularidade.";
+            case "A bulk delete accepts at most 5000 sales." ->
+                    "A exclusão em lote aceita no máximo 5000 vendas.";
+            case "A sale must contain at least one item." ->
+                    "A venda deve conter ao menos um item.";
             case "Cannot delete category as it is currently associated with existing sales." ->
                     "Não é possível excluir a categoria, pois ela está associada a vendas existentes.";
             default -> null;
@@ -183,6 +206,9 @@ public class GlobalExceptionHandler {
         if (normalized.startsWith("product not found with id: ")) {
             return "Produto não encontrado com ID: " + message.substring("Product not found with ID: ".length());
         }
+        if (normalized.startsWith("products not found with ids: ")) {
+            return "Produtos não encontrados com IDs: " + message.substring("Products not found with IDs: ".length());
+        }
         if (normalized.startsWith("customer not found with id: ")) {
             return "Cliente não encontrado com ID: " + message.substring("Customer not found with ID: ".length());
         }
@@ -192,23 +218,38 @@ public class GlobalExceptionHandler {
         if (normalized.startsWith("category not found with id: ")) {
             return "Categoria não encontrada com ID: " + message.substring("Category not found with ID: ".length());
         }
+        if (normalized.startsWith("sales not found with ids: ")) {
+            return "Vendas não encontradas com IDs: " + message.substring("Sales not found with IDs: ".length());
+        }
         if (normalized.startsWith("sale not found with id: ")) {
             return "Venda não encontrada com ID: " + message.substring("Sale not found with ID: ".length());
         }
         if (normalized.startsWith("expense not found with id: ")) {
             return "Despesa não encontrada com ID: " + message.substring("Expense not found with ID: ".length());
         }
+        if (normalized.startsWith("report job not found with id: ")) {
+            return "Relatório não encontrado com ID: " + message.substring("Report job not found with ID: ".length());
+        }
         if (normalized.startsWith("invalid payment method: ")) {
             return "Forma de pagamento inválida: " + message.substring("Invalid payment method: ".length());
         }
+        if (normalized.startsWith("invalid export format: ")) {
+            return "Formato de exportação inválido: " + message.substring("Invalid export format: ".length());
+        }
         if (normalized.startsWith("invalid payment status: ")) {
             return "Status de pagamento inválido: " + message.substring("Invalid payment status: ".length());
         }
         if (normalized.startsWith("invalid expense type: ")) {
             return "Tipo de despesa inválido: " + message.substring("Invalid expense type: ".length());
         }
+        if (normalized.startsWith("invalid granularity: ")) {
+            return "Granularidade inválida: " + message.substring("Invalid granularity: ".length());
+        }
+        if (normalized.startsWith("invalid abc class: ")) {
+            return "Classe ABC inválida: " + message.substring("Invalid ABC class: ".length());
+        }
         if (normalized.startsWith("invalid groupby parameter.")) {
-            return "Parâmetro groupBy inválido. Valores suportados: day, customer, paymentMethod.";
+            return "Parâmetro groupBy inválido. Valores suportados: day, week, month, customer, paymentMethod, product, category.";
         }
         if (normalized.startsWith("credit limit exceeded for customer: ")) {
             return "Limite de crédito excedido para o cliente: " + message.substring("Credit limit exceeded for customer: ".length());
@@ -225,20 +266,27 @@ public class GlobalExceptionHandler {
             return "O valor pago não confere com o valor total das vendas selecionadas.";
         }
         if (normalized.startsWith("insufficient stock for product: ")) {
-            int availableIndex = message.indexOf(". Available: ");
-            int requestedIndex = message.indexOf(", Requested: ");
-            if (availableIndex > 0 && requestedIndex > availableIndex) {
-                String productName = message.substring("Insufficient stock for product: ".length(), availableIndex);
-                String available = message.substring(availableIndex + ". Available: ".length(), requestedIndex);
-                String requested = message.substring(requestedIndex + ", Requested: ".length());
-                return "Estoque insuficiente para o produto: " + productName + ". Disponível: " + available
-                        + ", Solicitado: " + requested + ".";
-            }
-            return "Estoque insuficiente para o produto informado.";
+            return Arrays.stream(message.split("; "))
+                    .map(this::translateStockShortage)
+                    .collect(Collectors.joining(" "));
         }
         return null;
     }
 
+    private String translateStockShortage(String message) {
+        int availableIndex = message.indexOf(". Available: ");
+        int requestedIndex = message.indexOf(", Requested: ");
+        if (message.startsWith("Insufficient stock for product: ")
+                && availableIndex > 0 && requestedIndex > availableIndex) {
+            String productName = message.substring("Insufficient stock for product: ".length(), availableIndex);
+            String available = message.substring(availableIndex + ". Available: ".length(), requestedIndex);
+            String requested = message.substring(requestedIndex + ", Requested: ".length());
+            return "Estoque insuficiente para o produto: " + productName + ". Disponível: " + available
+                    + ", Solicitado: " + requested + ".";
+        }
+        return "Estoque insuficiente para o produto informado.";
+    }
+
     private String translatePatternMessages(String message) {
         String normalized = message.toLowerCase(Locale.ROOT);
         if (normalized.contains("must not be blank")) {
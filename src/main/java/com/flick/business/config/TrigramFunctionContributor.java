@@ -0,0 +1,48 @@
+package com.flick.business.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+import com.flick.business.repository.spec.SearchSpecification;
+
+/**
+ * Makes the pg_trgm word similarity operator and function usable from
+ * criteria queries, and registers the code normalization that searches on
+ * tax IDs and phones. Registered through META-INF/services; the pg_trgm ones
+ * only on PostgreSQL, as other databases have no pg_trgm.
+ */
+public class TrigramFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        boolean postgres = functionContributions.getDialect() instanceof PostgreSQLDialect;
+
+        // must render exactly as the expression indexes of db/scripts/006; H2 replaces every match without flags
+        functionContributions.getFunctionRegistry()
+                .patternDescriptorBuilder(SearchSpecification.STRIP_PUNCTUATION, postgres
+                        ? "regexp_replace(?1, '[^0-9A-Za-z]', '', 'g')"
+                        : "regexp_replace(?1, '[^0-9A-Za-z]', '')")
+                .setExactArgumentCount(1)
+                .setInvariantType(types.resolve(StandardBasicTypes.STRING))
+                .register();
+        if (!postgres) {
+            return;
+        }
+
+        // term <% text: an operator rather than a function call, so the trigram GIN indexes can serve it
+        functionContributions.getFunctionRegistry()
+                .patternDescriptorBuilder(SearchSpecification.WORD_SIMILAR, "(?1 <% ?2)")
+                .setExactArgumentCount(2)
+                .setInvariantType(types.resolve(StandardBasicTypes.BOOLEAN))
+                .register();
+        functionContributions.getFunctionRegistry()
+                .namedDescriptorBuilder(SearchSpecification.WORD_SIMILARITY)
+                .setExactArgumentCount(2)
+                .setInvariantType(types.resolve(StandardBasicTypes.DOUBLE))
+                .register();
+    }
+}
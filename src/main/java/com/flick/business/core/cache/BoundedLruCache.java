@@ -0,0 +1,50 @@
+package com.flick.business.core.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+/**
+ * Small thread-safe LRU map for in-process caches that must not grow without
+ * limit. Every call is synchronized, so values should be loaded outside of it
+ * and only stored here once they are ready.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class BoundedLruCache<K, V> {
+    private final Map<K, V> entries;
+
+    public BoundedLruCache(int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    public synchronized void remove(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized void removeIf(BiPredicate<K, V> predicate) {
+        entries.entrySet().removeIf(entry -> predicate.test(entry.getKey(), entry.getValue()));
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,53 @@
+package com.flick.business.core.entity;
+
+import com.flick.business.core.entity.security.User;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Revenue and quantity of one product sold by one tenant on one local day.
+ * Rows are maintained in the same transaction as the sales they summarize, so
+ * the ABC analysis reads one row per product and day instead of every sale
+ * item. Rows whose sales were all deleted are removed.
+ */
+@Entity
+@Table(name = "daily_product_sales", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_daily_product_sales_day", columnNames = { "user_id", "summary_date",
+                "product_id" })
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyProductSales {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "summary_date", nullable = false)
+    private LocalDate summaryDate;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+
+    @Column(nullable = false)
+    private BigDecimal revenue;
+
+    @Column(nullable = false)
+    private BigDecimal quantity;
+}
@@ -0,0 +1,67 @@
+package com.flick.business.core.entity;
+
+import com.flick.business.core.entity.security.User;
+import com.flick.business.core.enums.PaymentMethod;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Totals of one tenant for one local day and payment method. Rows are
+ * maintained incrementally in the same transaction as the sales, payments and
+ * expenses they summarize, so dashboards and reports read one row per day
+ * instead of every sale.
+ */
+@Entity
+@Table(name = "daily_sales_summary", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_daily_sales_summary_day", columnNames = { "user_id", "summary_date",
+                "payment_method" })
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailySalesSummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "summary_date", nullable = false)
+    private LocalDate summaryDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_method", nullable = false)
+    private PaymentMethod paymentMethod;
+
+    @Column(nullable = false)
+    private BigDecimal revenue;
+
+    @Column(nullable = false)
+    private BigDecimal cogs;
+
+    @Column(name = "sale_count", nullable = false)
+    private long saleCount;
+
+    @Column(name = "items_sold", nullable = false)
+    private BigDecimal itemsSold;
+
+    @Column(nullable = false)
+    private BigDecimal expenses;
+
+    /** Amount received in this payment method to settle ON_CREDIT sales. */
+    @Column(name = "credit_payments", nullable = false)
+    private BigDecimal creditPayments;
+}
@@ -15,6 +15,8 @@ import com.flick.business.core.entity.security.User;
 @Table(name = "products", uniqueConstraints = {
         @UniqueConstraint(columnNames = { "name", "user_id" }),
         @UniqueConstraint(columnNames = { "barcode", "user_id" })
+}, indexes = {
+        @Index(name = "idx_products_user_units_sold", columnList = "user_id, units_sold")
 })
 @NoArgsConstructor
 @AllArgsConstructor
@@ -38,7 +40,11 @@ public class Product {
     @Column(length = 50)
     private String barcode;
 
-    @Column(name = "stock_quantity", nullable = false)
+    /**
+     * Only changed by atomic statements, as sales and restocks run
+     * concurrently, so entity updates never write it.
+     */
+    @Column(name = "stock_quantity", nullable = false, updatable = false)
     private BigDecimal stockQuantity;
 
     @Column(name = "sale_price", nullable = false)
@@ -65,6 +71,17 @@ public class Product {
     @Builder.Default
     private boolean active = true;
 
+    /**
+     * Units sold over all existing sales. Only sale registration and deletion
+     * change it, with atomic statements, so entity updates never write it.
+     */
+    @Column(name = "units_sold", nullable = false, updatable = false)
+    @Builder.Default
+    private BigDecimal unitsSold = BigDecimal.ZERO;
+
+    @Column(name = "last_sold_at", updatable = false)
+    private ZonedDateTime lastSoldAt;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private ZonedDateTime createdAt;
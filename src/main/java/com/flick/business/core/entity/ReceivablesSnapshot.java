@@ -0,0 +1,49 @@
+package com.flick.business.core.entity;
+
+import com.flick.business.core.entity.security.User;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Amount owed by one tenant's customers at the end of a local day. A row is
+ * only written on days the balance changes, so the balance of any other day
+ * is the one of the latest row before it.
+ */
+@Entity
+@Table(name = "receivables_snapshots", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_receivables_snapshots_day", columnNames = { "user_id", "snapshot_date" })
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReceivablesSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+
+    /** Total debt of the customers at the end of the day. */
+    @Column(nullable = false)
+    private BigDecimal balance;
+
+    /** Net change of the debt during the day: credit sales minus payments and reversals. */
+    @Column(name = "balance_change", nullable = false)
+    private BigDecimal balanceChange;
+}
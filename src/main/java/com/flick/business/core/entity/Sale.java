@@ -9,14 +9,16 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.CreationTimestamp;
 import java.math.BigDecimal;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "sales")
+@Table(name = "sales", indexes = {
+        @Index(name = "idx_sales_user_date_id", columnList = "user_id, sale_date, id"),
+        @Index(name = "idx_sales_user_total_id", columnList = "user_id, total_value, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -24,7 +26,8 @@ import java.util.List;
 public class Sale {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sales_seq")
+    @SequenceGenerator(name = "sales_seq", sequenceName = "sales_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -53,7 +56,7 @@ public class Sale {
     @Column(length = 500)
     private String description;
 
-    @CreationTimestamp
+    // set by the service before saving: with sequence ids the insert is deferred
     @Column(name = "sale_date", nullable = false, updatable = false)
     private ZonedDateTime saleDate;
 
@@ -8,7 +8,10 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "sale_items")
+@Table(name = "sale_items", indexes = {
+        @Index(name = "idx_sale_items_sale_id", columnList = "sale_id"),
+        @Index(name = "idx_sale_items_product_id", columnList = "product_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,7 +19,8 @@ import java.math.BigDecimal;
 public class SaleItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sale_items_seq")
+    @SequenceGenerator(name = "sale_items_seq", sequenceName = "sale_items_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -25,6 +29,10 @@ public class SaleItem {
     @Column(name = "unit_price", nullable = false)
     private BigDecimal unitPrice;
 
+    /** Cost price of the product when it was sold; null if the product had none. */
+    @Column(name = "unit_cost_price")
+    private BigDecimal unitCostPrice;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "sale_id", nullable = false)
     private Sale sale;
@@ -40,4 +48,12 @@ public class SaleItem {
         }
         return BigDecimal.ZERO;
     }
+
+    @Transient
+    public BigDecimal getTotalCost() {
+        if (quantity != null && unitCostPrice != null) {
+            return quantity.multiply(unitCostPrice);
+        }
+        return BigDecimal.ZERO;
+    }
 }
\ No newline at end of file
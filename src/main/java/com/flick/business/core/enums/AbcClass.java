@@ -0,0 +1,11 @@
+package com.flick.business.core.enums;
+
+/**
+ * Class of a product in an ABC analysis: A holds the products behind the
+ * first 80% of revenue, B the next 15% and C the rest.
+ */
+public enum AbcClass {
+    A,
+    B,
+    C
+}
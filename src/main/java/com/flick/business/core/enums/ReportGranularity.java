@@ -0,0 +1,8 @@
+package com.flick.business.core.enums;
+
+/** Length of the periods a report is broken down into; weeks start on Monday. */
+public enum ReportGranularity {
+    DAY,
+    WEEK,
+    MONTH
+}
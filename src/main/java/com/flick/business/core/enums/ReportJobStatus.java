@@ -0,0 +1,8 @@
+package com.flick.business.core.enums;
+
+public enum ReportJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
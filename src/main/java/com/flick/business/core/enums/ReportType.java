@@ -0,0 +1,6 @@
+package com.flick.business.core.enums;
+
+public enum ReportType {
+    FINANCIAL_SUMMARY,
+    ABC_ANALYSIS
+}
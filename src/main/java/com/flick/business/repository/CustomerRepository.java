@@ -2,11 +2,13 @@ package com.flick.business.repository;
 
 import java.math.BigDecimal;
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -32,4 +34,44 @@ public interface CustomerRepository extends JpaRepository<Customer, Long>, JpaSp
     @Query("SELECT COUNT(c.id) FROM Customer c WHERE c.createdAt BETWEEN :startDate AND :endDate AND c.user.id = :userId")
     Long countNewCustomersBetween(@Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate,
             @Param("userId") Long userId);
+
+    /**
+     * Adds an ON_CREDIT amount to the customer's debt. The credit checks run in
+     * the WHERE clause against the balance locked by the update itself, so
+     * concurrent sales can neither lose an increment nor exceed the limit.
+     *
+     * @return 1 if the debt was charged, 0 if credit is disabled or the limit
+     *         would be exceeded.
+     */
+    @Modifying
+    @Query(value = "UPDATE customers SET debt_balance = debt_balance + :amount, " +
+            "last_credit_purchase_at = CURRENT_TIMESTAMP, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = :id AND user_id = :userId AND credit_enabled = true " +
+            "AND (credit_limit IS NULL OR debt_balance + :amount <= credit_limit)", nativeQuery = true)
+    int chargeDebtWithinLimit(@Param("id") Long id, @Param("userId") Long userId,
+            @Param("amount") BigDecimal amount);
+
+    /**
+     * Subtracts a paid or reversed amount from the customer's debt in place.
+     *
+     * @return 1 if the debt was reduced, 0 if the customer does not exist.
+     */
+    @Modifying
+    @Query(value = "UPDATE customers SET debt_balance = debt_balance - :amount, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = :id AND user_id = :userId", nativeQuery = true)
+    int reduceDebt(@Param("id") Long id, @Param("userId") Long userId, @Param("amount") BigDecimal amount);
+
+    /**
+     * Removes the value of the given ON_CREDIT sales that are still pending from
+     * their customers' debt, one UPDATE for all customers involved. Paid sales
+     * were already subtracted by their payment.
+     */
+    @Modifying
+    @Query(value = "UPDATE customers c SET debt_balance = c.debt_balance - owed.total, " +
+            "updated_at = CURRENT_TIMESTAMP " +
+            "FROM (SELECT customer_id, SUM(total_value) AS total FROM sales " +
+            "WHERE id IN (:saleIds) AND user_id = :userId AND customer_id IS NOT NULL " +
+            "AND payment_method = 'ON_CREDIT' AND payment_status = 'PENDING' GROUP BY customer_id) owed " +
+            "WHERE c.id = owed.customer_id", nativeQuery = true)
+    int reduceDebtOfPendingSales(@Param("saleIds") Collection<Long> saleIds, @Param("userId") Long userId);
 }
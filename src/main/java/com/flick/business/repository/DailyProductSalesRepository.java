@@ -0,0 +1,143 @@
+package com.flick.business.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.flick.business.core.entity.DailyProductSales;
+
+public interface DailyProductSalesRepository extends JpaRepository<DailyProductSales, Long> {
+
+        String INSERT_COLUMNS = "INSERT INTO daily_product_sales (user_id, summary_date, product_id, revenue, quantity) ";
+
+        /**
+         * Adds the inserted values to an existing row instead of failing, so
+         * concurrent sales of the same product and day only serialize on that row.
+         */
+        String ACCUMULATE_ON_CONFLICT = "ON CONFLICT (user_id, summary_date, product_id) DO UPDATE SET "
+                        + "revenue = daily_product_sales.revenue + EXCLUDED.revenue, "
+                        + "quantity = daily_product_sales.quantity + EXCLUDED.quantity";
+
+        /**
+         * Revenue of every active product of the tenant over a range of days, with
+         * its share of the total, the cumulative share in ranking order and its
+         * class. Products without sales in the range are included with zero
+         * revenue; when nothing was sold every share is zero.
+         */
+        String ABC_CLASSIFICATION = "WITH product_revenue AS ("
+                        + "SELECT p.id AS product_id, p.name AS product_name, "
+                        + "COALESCE(SUM(d.revenue), 0) AS total_revenue "
+                        + "FROM products p LEFT JOIN daily_product_sales d ON d.product_id = p.id "
+                        + "AND d.user_id = :userId AND d.summary_date BETWEEN :startDate AND :endDate "
+                        + "WHERE p.active = true AND p.user_id = :userId "
+                        + "GROUP BY p.id, p.name), "
+                        + "shares AS ("
+                        + "SELECT product_id, product_name, total_revenue, "
+                        + "CASE WHEN SUM(total_revenue) OVER () > 0 "
+                        + "THEN total_revenue * 100 / SUM(total_revenue) OVER () ELSE 0 END AS percentage_of_total, "
+                        + "CASE WHEN SUM(total_revenue) OVER () > 0 "
+                        + "THEN SUM(total_revenue) OVER (ORDER BY total_revenue DESC, product_name, product_id "
+                        + "ROWS UNBOUNDED PRECEDING) * 100 / SUM(total_revenue) OVER () ELSE 0 END "
+                        + "AS cumulative_percentage "
+                        + "FROM product_revenue), "
+                        + "classified AS ("
+                        + "SELECT product_id, product_name, total_revenue, percentage_of_total, cumulative_percentage, "
+                        + "CASE WHEN cumulative_percentage <= 80 THEN 'A' "
+                        + "WHEN cumulative_percentage <= 95 THEN 'B' ELSE 'C' END AS abc_class "
+                        + "FROM shares) ";
+
+        String ABC_CLASS_FILTER = "WHERE CAST(:abcClass AS VARCHAR) IS NULL OR abc_class = :abcClass ";
+
+        /**
+         * Writes the items of one new sale, one value per product, with a single
+         * statement whatever the number of items. The arrays are aligned and
+         * sorted by product, so concurrent sales lock rows in the same order.
+         */
+        @Modifying
+        @Query(value = INSERT_COLUMNS
+                        + "SELECT :userId, :summaryDate, i.product_id, i.revenue, i.quantity "
+                        + "FROM UNNEST(CAST(:productIds AS BIGINT[]), CAST(:revenues AS NUMERIC[]), "
+                        + "CAST(:quantities AS NUMERIC[])) AS i(product_id, revenue, quantity) "
+                        + ACCUMULATE_ON_CONFLICT, nativeQuery = true)
+        int addSale(@Param("userId") Long userId, @Param("summaryDate") LocalDate summaryDate,
+                        @Param("productIds") Long[] productIds, @Param("revenues") BigDecimal[] revenues,
+                        @Param("quantities") BigDecimal[] quantities);
+
+        /**
+         * Subtracts the items of the given sales from their products and days
+         * with one statement. Must run before the sales and items are deleted.
+         */
+        @Modifying
+        @Query(value = INSERT_COLUMNS
+                        + "SELECT s.user_id, CAST(s.sale_date AT TIME ZONE :zone AS DATE), si.product_id, "
+                        + "-SUM(si.quantity * si.unit_price), -SUM(si.quantity) "
+                        + "FROM sale_items si JOIN sales s ON s.id = si.sale_id "
+                        + "WHERE si.sale_id IN (:saleIds) AND s.user_id = :userId "
+                        + "GROUP BY 1, 2, 3 ORDER BY 2, 3 "
+                        + ACCUMULATE_ON_CONFLICT, nativeQuery = true)
+        int subtractSales(@Param("saleIds") Collection<Long> saleIds, @Param("userId") Long userId,
+                        @Param("zone") String zone);
+
+        /**
+         * Removes the rows left empty by {@link #subtractSales}, so a product
+         * whose sales were all deleted can be deleted too. Must run before the
+         * items are deleted.
+         */
+        @Modifying
+        @Query(value = "DELETE FROM daily_product_sales d WHERE d.user_id = :userId AND d.quantity = 0 "
+                        + "AND d.product_id IN (SELECT si.product_id FROM sale_items si WHERE si.sale_id IN (:saleIds))",
+                        nativeQuery = true)
+        int deleteEmptyRowsOfSales(@Param("saleIds") Collection<Long> saleIds, @Param("userId") Long userId);
+
+        /** Blocks writers of the rollup until the rebuilding transaction ends. */
+        @Modifying
+        @Query(value = "LOCK TABLE daily_product_sales IN EXCLUSIVE MODE", nativeQuery = true)
+        void lockForRebuild();
+
+        @Modifying
+        @Query(value = "DELETE FROM daily_product_sales "
+                        + "WHERE CAST(:userId AS BIGINT) IS NULL OR user_id = :userId", nativeQuery = true)
+        int deleteForRebuild(@Param("userId") Long userId);
+
+        /**
+         * Recomputes the rollup from the sale items, for one tenant or for all of
+         * them when userId is null.
+         */
+        @Modifying
+        @Query(value = INSERT_COLUMNS
+                        + "SELECT s.user_id, CAST(s.sale_date AT TIME ZONE :zone AS DATE), si.product_id, "
+                        + "SUM(si.quantity * si.unit_price), SUM(si.quantity) "
+                        + "FROM sale_items si JOIN sales s ON s.id = si.sale_id "
+                        + "WHERE CAST(:userId AS BIGINT) IS NULL OR s.user_id = :userId "
+                        + "GROUP BY 1, 2, 3", nativeQuery = true)
+        int insertFromSources(@Param("userId") Long userId, @Param("zone") String zone);
+
+        /**
+         * One page of the ABC analysis, optionally of a single class, ranked by
+         * revenue. Columns: product ID, product name, revenue, percentage of the
+         * total revenue, cumulative percentage, class and the number of products
+         * matching the filter, so a page needs no separate count.
+         */
+        @Query(value = ABC_CLASSIFICATION
+                        + "SELECT product_id, product_name, total_revenue, percentage_of_total, cumulative_percentage, "
+                        + "abc_class, COUNT(*) OVER () FROM classified "
+                        + ABC_CLASS_FILTER
+                        + "ORDER BY total_revenue DESC, product_name, product_id "
+                        + "LIMIT :limit OFFSET :offset", nativeQuery = true)
+        List<Object[]> findAbcPage(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+                        @Param("userId") Long userId, @Param("abcClass") String abcClass,
+                        @Param("limit") int limit, @Param("offset") long offset);
+
+        /** Number of products matching the filter, for a page past the last one. */
+        @Query(value = ABC_CLASSIFICATION
+                        + "SELECT COUNT(*) FROM classified "
+                        + ABC_CLASS_FILTER, nativeQuery = true)
+        long countAbc(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+                        @Param("userId") Long userId, @Param("abcClass") String abcClass);
+}
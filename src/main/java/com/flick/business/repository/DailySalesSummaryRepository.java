@@ -0,0 +1,191 @@
+package com.flick.business.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.flick.business.core.entity.DailySalesSummary;
+
+public interface DailySalesSummaryRepository extends JpaRepository<DailySalesSummary, Long> {
+
+        String INSERT_COLUMNS = "INSERT INTO daily_sales_summary (user_id, summary_date, payment_method, "
+                        + "revenue, cogs, sale_count, items_sold, expenses, credit_payments) ";
+
+        /**
+         * Adds the inserted values to an existing row instead of failing, so
+         * concurrent writers of the same day only serialize on that row.
+         */
+        String ACCUMULATE_ON_CONFLICT = "ON CONFLICT (user_id, summary_date, payment_method) DO UPDATE SET "
+                        + "revenue = daily_sales_summary.revenue + EXCLUDED.revenue, "
+                        + "cogs = daily_sales_summary.cogs + EXCLUDED.cogs, "
+                        + "sale_count = daily_sales_summary.sale_count + EXCLUDED.sale_count, "
+                        + "items_sold = daily_sales_summary.items_sold + EXCLUDED.items_sold, "
+                        + "expenses = daily_sales_summary.expenses + EXCLUDED.expenses, "
+                        + "credit_payments = daily_sales_summary.credit_payments + EXCLUDED.credit_payments";
+
+        /** Quantity and cost of goods of each sale, from the costs recorded on its items. */
+        String ITEM_TOTALS_BY_SALE = "SELECT si.sale_id, SUM(si.quantity) AS quantity, "
+                        + "SUM(si.quantity * COALESCE(si.unit_cost_price, 0)) AS cogs "
+                        + "FROM sale_items si ";
+
+        @Modifying
+        @Query(value = INSERT_COLUMNS
+                        + "VALUES (:userId, :summaryDate, :paymentMethod, :revenue, :cogs, :saleCount, :itemsSold, 0, 0) "
+                        + ACCUMULATE_ON_CONFLICT, nativeQuery = true)
+        int addSales(@Param("userId") Long userId, @Param("summaryDate") LocalDate summaryDate,
+                        @Param("paymentMethod") String paymentMethod, @Param("revenue") BigDecimal revenue,
+                        @Param("cogs") BigDecimal cogs, @Param("saleCount") long saleCount,
+                        @Param("itemsSold") BigDecimal itemsSold);
+
+        @Modifying
+        @Query(value = INSERT_COLUMNS
+                        + "VALUES (:userId, :summaryDate, :paymentMethod, 0, 0, 0, 0, :amount, 0) "
+                        + ACCUMULATE_ON_CONFLICT, nativeQuery = true)
+        int addExpenses(@Param("userId") Long userId, @Param("summaryDate") LocalDate summaryDate,
+                        @Param("paymentMethod") String paymentMethod, @Param("amount") BigDecimal amount);
+
+        @Modifying
+        @Query(value = INSERT_COLUMNS
+                        + "VALUES (:userId, :summaryDate, :paymentMethod, 0, 0, 0, 0, 0, :amount) "
+                        + ACCUMULATE_ON_CONFLICT, nativeQuery = true)
+        int addCreditPayments(@Param("userId") Long userId, @Param("summaryDate") LocalDate summaryDate,
+                        @Param("paymentMethod") String paymentMethod, @Param("amount") BigDecimal amount);
+
+        /**
+         * Subtracts the given sales from their days with one statement, whatever
+         * the number of sales. Must run before the sales and items are deleted.
+         * Rows are written in key order so that concurrent bulk deletions lock
+         * them in the same order.
+         */
+        @Modifying
+        @Query(value = INSERT_COLUMNS
+                        + "SELECT s.user_id, CAST(s.sale_date AT TIME ZONE :zone AS DATE), s.payment_method, "
+                        + "-SUM(s.total_value), -SUM(COALESCE(i.cogs, 0)), -COUNT(*), -SUM(COALESCE(i.quantity, 0)), 0, 0 "
+                        + "FROM sales s LEFT JOIN (" + ITEM_TOTALS_BY_SALE
+                        + "WHERE si.sale_id IN (:saleIds) GROUP BY si.sale_id) i ON i.sale_id = s.id "
+                        + "WHERE s.id IN (:saleIds) AND s.user_id = :userId "
+                        + "GROUP BY 1, 2, 3 ORDER BY 2, 3 "
+                        + ACCUMULATE_ON_CONFLICT, nativeQuery = true)
+        int subtractSales(@Param("saleIds") Collection<Long> saleIds, @Param("userId") Long userId,
+                        @Param("zone") String zone);
+
+        /**
+         * Blocks writers of the rollup until the rebuilding transaction ends.
+         * Writers that already changed a row are waited for first, so every
+         * committed sale is either in the rebuild snapshot or applied after it.
+         */
+        @Modifying
+        @Query(value = "LOCK TABLE daily_sales_summary IN EXCLUSIVE MODE", nativeQuery = true)
+        void lockForRebuild();
+
+        @Modifying
+        @Query(value = "DELETE FROM daily_sales_summary "
+                        + "WHERE CAST(:userId AS BIGINT) IS NULL OR user_id = :userId", nativeQuery = true)
+        int deleteForRebuild(@Param("userId") Long userId);
+
+        /**
+         * Recomputes the rollup from sales, expenses and payments, for one tenant
+         * or for all of them when userId is null.
+         */
+        @Modifying
+        @Query(value = INSERT_COLUMNS
+                        + "SELECT user_id, summary_date, payment_method, SUM(revenue), SUM(cogs), SUM(sale_count), "
+                        + "SUM(items_sold), SUM(expenses), SUM(credit_payments) FROM ("
+                        + "SELECT s.user_id, CAST(s.sale_date AT TIME ZONE :zone AS DATE) AS summary_date, "
+                        + "s.payment_method, s.total_value AS revenue, COALESCE(i.cogs, 0) AS cogs, 1 AS sale_count, "
+                        + "COALESCE(i.quantity, 0) AS items_sold, 0 AS expenses, 0 AS credit_payments "
+                        + "FROM sales s LEFT JOIN (" + ITEM_TOTALS_BY_SALE + "GROUP BY si.sale_id) i "
+                        + "ON i.sale_id = s.id "
+                        + "WHERE CAST(:userId AS BIGINT) IS NULL OR s.user_id = :userId "
+                        + "UNION ALL "
+                        + "SELECT e.user_id, CAST(e.expense_date AT TIME ZONE :zone AS DATE), e.payment_method, "
+                        + "0, 0, 0, 0, e.value, 0 FROM expenses e "
+                        + "WHERE CAST(:userId AS BIGINT) IS NULL OR e.user_id = :userId "
+                        + "UNION ALL "
+                        + "SELECT c.user_id, CAST(pay.payment_date AT TIME ZONE :zone AS DATE), pay.payment_method, "
+                        + "0, 0, 0, 0, 0, pay.amount_paid FROM payments pay JOIN customers c ON c.id = pay.customer_id "
+                        + "WHERE CAST(:userId AS BIGINT) IS NULL OR c.user_id = :userId"
+                        + ") facts GROUP BY user_id, summary_date, payment_method", nativeQuery = true)
+        int insertFromSources(@Param("userId") Long userId, @Param("zone") String zone);
+
+        /**
+         * Totals of a range of days as one row: revenue, cogs, sale count, items
+         * sold, expenses and credit payments.
+         */
+        @Query("SELECT COALESCE(SUM(d.revenue), 0), COALESCE(SUM(d.cogs), 0), COALESCE(SUM(d.saleCount), 0), "
+                        + "COALESCE(SUM(d.itemsSold), 0), COALESCE(SUM(d.expenses), 0), "
+                        + "COALESCE(SUM(d.creditPayments), 0) "
+                        + "FROM DailySalesSummary d "
+                        + "WHERE d.user.id = :userId AND d.summaryDate BETWEEN :startDate AND :endDate")
+        List<Object[]> sumBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+                        @Param("userId") Long userId);
+
+        /**
+         * Revenue, cogs and expenses of a range of days grouped by period, one row
+         * per period with activity, in order. The unit is a DATE_TRUNC field such
+         * as day, week or month; the first column is the first day of the period.
+         */
+        @Query(value = "SELECT CAST(DATE_TRUNC(:unit, CAST(d.summary_date AS TIMESTAMP)) AS DATE) AS period, "
+                        + "COALESCE(SUM(d.revenue), 0), COALESCE(SUM(d.cogs), 0), COALESCE(SUM(d.expenses), 0) "
+                        + "FROM daily_sales_summary d "
+                        + "WHERE d.user_id = :userId AND d.summary_date BETWEEN :startDate AND :endDate "
+                        + "GROUP BY 1 ORDER BY 1", nativeQuery = true)
+        List<Object[]> sumByPeriod(@Param("unit") String unit, @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate, @Param("userId") Long userId);
+
+        String CURRENT_WINDOW = " FILTER (WHERE d.summary_date BETWEEN :startDate AND :endDate), 0), ";
+        String PREVIOUS_WINDOW = " FILTER (WHERE d.summary_date < :startDate), 0), ";
+
+        /** Snapshot rows of the dashboard carry their balance in the receivables column. */
+        String RECEIVABLES_COLUMNS = "r.snapshot_date, NULL, 0, 0, 0, 0, 0, 0, r.balance FROM receivables_snapshots r "
+                        + "WHERE r.user_id = :userId AND ";
+
+        /**
+         * Everything the dashboard reads from the rollup and the receivables
+         * snapshots, in one statement over both windows. The previous window
+         * ends the day before startDate. Rows:
+         * <ul>
+         * <li>TOTAL: current and previous totals plus today's receivables;</li>
+         * <li>METHOD: current totals of one payment method;</li>
+         * <li>DAY: current totals of one day, for the trend and sparklines;</li>
+         * <li>OPENING_RECEIVABLES: the latest snapshot before the window, that
+         * is the receivables at the end of the previous window;</li>
+         * <li>RECEIVABLES: the snapshot of a day of the window whose balance
+         * changed.</li>
+         * </ul>
+         * Columns: row type, day, payment method, current and previous revenue,
+         * current and previous sale count, current and previous expenses and
+         * receivables.
+         */
+        @Query(value = "SELECT CASE WHEN GROUPING(d.summary_date) = 0 THEN 'DAY' "
+                        + "WHEN GROUPING(d.payment_method) = 0 THEN 'METHOD' ELSE 'TOTAL' END AS row_type, "
+                        + "d.summary_date, d.payment_method, "
+                        + "COALESCE(SUM(d.revenue)" + CURRENT_WINDOW
+                        + "COALESCE(SUM(d.revenue)" + PREVIOUS_WINDOW
+                        + "COALESCE(SUM(d.sale_count)" + CURRENT_WINDOW
+                        + "COALESCE(SUM(d.sale_count)" + PREVIOUS_WINDOW
+                        + "COALESCE(SUM(d.expenses)" + CURRENT_WINDOW
+                        + "COALESCE(SUM(d.expenses)" + PREVIOUS_WINDOW
+                        + "(SELECT COALESCE(SUM(c.debt_balance), 0) FROM customers c "
+                        + "WHERE c.active = true AND c.user_id = :userId) "
+                        + "FROM daily_sales_summary d "
+                        + "WHERE d.user_id = :userId AND d.summary_date BETWEEN :previousStartDate AND :endDate "
+                        + "GROUP BY GROUPING SETS ((), (d.payment_method), (d.summary_date)) "
+                        + "HAVING GROUPING(d.summary_date) = 1 OR d.summary_date >= :startDate "
+                        + "UNION ALL "
+                        + "SELECT 'RECEIVABLES', " + RECEIVABLES_COLUMNS
+                        + "r.snapshot_date BETWEEN :startDate AND :endDate "
+                        + "UNION ALL "
+                        + "(SELECT 'OPENING_RECEIVABLES', " + RECEIVABLES_COLUMNS
+                        + "r.snapshot_date < :startDate ORDER BY r.snapshot_date DESC LIMIT 1) "
+                        + "ORDER BY 1, 2", nativeQuery = true)
+        List<Object[]> summarizeDashboard(@Param("previousStartDate") LocalDate previousStartDate,
+                        @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+                        @Param("userId") Long userId);
+}
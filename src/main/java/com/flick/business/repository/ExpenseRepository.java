@@ -2,6 +2,8 @@ package com.flick.business.repository;
 
 import com.flick.business.core.entity.Expense;
 
+import jakarta.persistence.LockModeType;
+
 import java.math.BigDecimal;
 import java.time.ZonedDateTime;
 import java.util.List;
@@ -9,6 +11,7 @@ import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -17,6 +20,14 @@ import org.springframework.stereotype.Repository;
 public interface ExpenseRepository extends JpaRepository<Expense, Long>, JpaSpecificationExecutor<Expense> {
   Optional<Expense> findByIdAndUserId(Long id, Long userId);
 
+  /**
+   * Loads an expense locked for update, so concurrent changes of the same
+   * expense cannot both subtract its old value from the daily rollup.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT e FROM Expense e WHERE e.id = :id AND e.user.id = :userId")
+  Optional<Expense> lockByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
   /**
    * Sums the total value of expenses for a user within a specified date range.
    *
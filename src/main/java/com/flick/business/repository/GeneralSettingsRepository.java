@@ -1,6 +1,9 @@
 package com.flick.business.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.flick.business.core.entity.GeneralSettings;
@@ -9,4 +12,14 @@ import java.util.Optional;
 @Repository
 public interface GeneralSettingsRepository extends JpaRepository<GeneralSettings, Long> {
     Optional<GeneralSettings> findByUserId(Long userId);
+
+    /**
+     * Creates the default settings row unless one exists. Concurrent first
+     * requests of the same user end up with a single row instead of failing
+     * on the unique user_id constraint.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO general_settings (user_id, stock_control_type) " +
+            "VALUES (:userId, :stockControlType) ON CONFLICT (user_id) DO NOTHING", nativeQuery = true)
+    int insertDefaultIfAbsent(@Param("userId") Long userId, @Param("stockControlType") String stockControlType);
 }
@@ -1,13 +1,15 @@
 package com.flick.business.repository;
 
 import com.flick.business.core.entity.Product;
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -16,34 +18,90 @@ import org.springframework.stereotype.Repository;
 public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
     Optional<Product> findByIdAndUserId(Long id, Long userId);
 
+    List<Product> findByIdInAndUserId(Collection<Long> ids, Long userId);
+
+    /**
+     * Removes the given quantity from a product's stock in a single guarded
+     * statement. The row lock taken by the update serializes concurrent sales of
+     * the same product, so stock can never be oversold or lost.
+     *
+     * @return 1 if the stock was decremented, 0 if it was insufficient.
+     */
+    @Modifying
+    @Query(value = "UPDATE products SET stock_quantity = stock_quantity - :quantity, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = :id AND user_id = :userId AND stock_quantity >= :quantity", nativeQuery = true)
+    int decrementStockIfAvailable(@Param("id") Long id, @Param("userId") Long userId,
+            @Param("quantity") BigDecimal quantity);
+
+    /**
+     * Returns the quantities sold in the given sales to the stock of every
+     * product that manages stock, in one statement for all sales.
+     */
+    @Modifying
+    @Query(value = "UPDATE products p SET stock_quantity = p.stock_quantity + sold.quantity, " +
+            "updated_at = CURRENT_TIMESTAMP " +
+            "FROM (SELECT si.product_id, SUM(si.quantity) AS quantity FROM sale_items si " +
+            "JOIN sales s ON s.id = si.sale_id " +
+            "WHERE si.sale_id IN (:saleIds) AND s.user_id = :userId GROUP BY si.product_id) sold " +
+            "WHERE p.id = sold.product_id AND p.manages_stock = true", nativeQuery = true)
+    int restockFromSales(@Param("saleIds") Collection<Long> saleIds, @Param("userId") Long userId);
+
+    /**
+     * Adds restocked units to a product's stock in place, so sales committed
+     * since the product was loaded are kept.
+     */
+    @Modifying
+    @Query(value = "UPDATE products SET stock_quantity = stock_quantity + :quantity, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = :id AND user_id = :userId", nativeQuery = true)
+    int incrementStock(@Param("id") Long id, @Param("userId") Long userId, @Param("quantity") BigDecimal quantity);
+
+    /**
+     * Replaces a product's stock with a counted quantity. Entity updates never
+     * write the stock, so this is the only way to set it outright.
+     */
+    @Modifying
+    @Query(value = "UPDATE products SET stock_quantity = :quantity, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = :id AND user_id = :userId", nativeQuery = true)
+    int overwriteStock(@Param("id") Long id, @Param("userId") Long userId, @Param("quantity") BigDecimal quantity);
+
+    @Query("SELECT p.stockQuantity FROM Product p WHERE p.id = :id")
+    BigDecimal findStockQuantityById(@Param("id") Long id);
+
     List<Product> findTop3ByActiveTrueAndUserIdOrderByNameAsc(Long userId);
 
-    @Query(value = "SELECT p.* FROM products p " +
-            "LEFT JOIN sale_items si ON p.id = si.product_id " +
-            "WHERE (:name IS NULL OR lower(p.name) LIKE lower(concat('%', :name, '%'))) " +
-            "AND (:categoryId IS NULL OR p.category_id = :categoryId) " +
-            "AND p.user_id = :userId " +
-            "GROUP BY p.id " +
-            "ORDER BY COALESCE(SUM(si.quantity), 0) DESC", nativeQuery = true)
-    Page<Product> findAllByMostSold(
-            @Param("name") String name,
-            @Param("categoryId")
-            Long categoryId,
-            @Param("userId") Long userId,
-            Pageable pageable);
-
-    @Query(value = "SELECT p.* FROM products p " +
-            "LEFT JOIN sale_items si ON p.id = si.product_id " +
-            "WHERE (:name IS NULL OR lower(p.name) LIKE lower(concat('%', :name, '%'))) " +
-            "AND (:categoryId IS NULL OR p.category_id = :categoryId) " +
-            "AND p.user_id = :userId " +
-            "GROUP BY p.id " +
-            "ORDER BY COALESCE(SUM(si.quantity), 0) ASC", nativeQuery = true)
-    Page<Product> findAllByLeastSold(
-            @Param("name") String name,
-            @Param("categoryId") Long categoryId,
-            @Param("userId") Long userId,
-            Pageable pageable);
+    /**
+     * Adds the quantities of a new sale to the units sold of its products and
+     * moves their last sale time forward, in one statement for all items. The
+     * arrays are aligned, one entry per product.
+     */
+    @Modifying
+    @Query(value = "UPDATE products p SET units_sold = p.units_sold + sold.quantity, " +
+            "last_sold_at = GREATEST(p.last_sold_at, :soldAt) " +
+            "FROM UNNEST(CAST(:productIds AS BIGINT[]), CAST(:quantities AS NUMERIC[])) " +
+            "AS sold(product_id, quantity) " +
+            "WHERE p.id = sold.product_id AND p.user_id = :userId", nativeQuery = true)
+    int addUnitsSold(@Param("productIds") Long[] productIds, @Param("quantities") BigDecimal[] quantities,
+            @Param("soldAt") ZonedDateTime soldAt, @Param("userId") Long userId);
+
+    /**
+     * Takes the quantities of sales about to be deleted off the units sold of
+     * their products. When one of them was a product's latest sale, its last
+     * sale time falls back to the latest sale that remains. Must run before the
+     * items are deleted.
+     */
+    @Modifying
+    @Query(value = "UPDATE products p SET units_sold = p.units_sold - sold.quantity, " +
+            "last_sold_at = CASE WHEN sold.last_sold_at < p.last_sold_at THEN p.last_sold_at ELSE (" +
+            "SELECT MAX(rs.sale_date) FROM sale_items ri JOIN sales rs ON rs.id = ri.sale_id " +
+            "WHERE ri.product_id = p.id AND ri.sale_id NOT IN (:saleIds)) END " +
+            "FROM (SELECT si.product_id, SUM(si.quantity) AS quantity, MAX(s.sale_date) AS last_sold_at " +
+            "FROM sale_items si JOIN sales s ON s.id = si.sale_id " +
+            "WHERE si.sale_id IN (:saleIds) AND s.user_id = :userId GROUP BY si.product_id) sold " +
+            "WHERE p.id = sold.product_id", nativeQuery = true)
+    int subtractUnitsSold(@Param("saleIds") Collection<Long> saleIds, @Param("userId") Long userId);
+
+    List<Product> findTop3ByUserIdAndUnitsSoldGreaterThanOrderByUnitsSoldDescIdAsc(Long userId,
+            BigDecimal unitsSold);
 
     @Query("SELECT p FROM Product p WHERE p.stockQuantity < p.minimumStock AND p.user.id = :userId")
     List<Product> findLowStockProducts(@Param("userId") Long userId);
@@ -0,0 +1,89 @@
+package com.flick.business.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.flick.business.core.entity.ReceivablesSnapshot;
+
+public interface ReceivablesSnapshotRepository extends JpaRepository<ReceivablesSnapshot, Long> {
+
+        /**
+         * Opens the day from the latest earlier balance, or adds the change to
+         * the day's row when it already exists. Selecting from a subquery
+         * aliased "x" with a "change" column applies that change.
+         */
+        String APPLY_CHANGE = "INSERT INTO receivables_snapshots (user_id, snapshot_date, balance, balance_change) "
+                        + "SELECT :userId, :day, COALESCE((SELECT r.balance FROM receivables_snapshots r "
+                        + "WHERE r.user_id = :userId AND r.snapshot_date < :day "
+                        + "ORDER BY r.snapshot_date DESC LIMIT 1), 0) + x.change, x.change FROM ";
+
+        String ACCUMULATE_ON_CONFLICT = " x WHERE x.change <> 0 "
+                        + "ON CONFLICT (user_id, snapshot_date) DO UPDATE SET "
+                        + "balance = receivables_snapshots.balance + EXCLUDED.balance_change, "
+                        + "balance_change = receivables_snapshots.balance_change + EXCLUDED.balance_change";
+
+        @Modifying
+        @Query(value = APPLY_CHANGE + "(SELECT CAST(:amount AS NUMERIC) AS change)" + ACCUMULATE_ON_CONFLICT,
+                        nativeQuery = true)
+        int addChange(@Param("userId") Long userId, @Param("day") LocalDate day, @Param("amount") BigDecimal amount);
+
+        /**
+         * Takes the pending ON_CREDIT sales among the given ones off the day's
+         * balance, with one statement. Must run before the sales are deleted.
+         */
+        @Modifying
+        @Query(value = APPLY_CHANGE + "(SELECT -COALESCE(SUM(s.total_value), 0) AS change FROM sales s "
+                        + "WHERE s.id IN (:saleIds) AND s.user_id = :userId AND s.customer_id IS NOT NULL "
+                        + "AND s.payment_method = 'ON_CREDIT' AND s.payment_status = 'PENDING')"
+                        + ACCUMULATE_ON_CONFLICT, nativeQuery = true)
+        int subtractPendingCreditSales(@Param("saleIds") Collection<Long> saleIds, @Param("userId") Long userId,
+                        @Param("day") LocalDate day);
+
+        /** Blocks writers of the snapshots until the rebuilding transaction ends. */
+        @Modifying
+        @Query(value = "LOCK TABLE receivables_snapshots IN EXCLUSIVE MODE", nativeQuery = true)
+        void lockForRebuild();
+
+        @Modifying
+        @Query(value = "DELETE FROM receivables_snapshots "
+                        + "WHERE CAST(:userId AS BIGINT) IS NULL OR user_id = :userId", nativeQuery = true)
+        int deleteForRebuild(@Param("userId") Long userId);
+
+        /**
+         * Rebuilds the daily balances from ON_CREDIT sales and payments, for one
+         * tenant or for all of them when userId is null. Sales deleted in the
+         * past left no trace, so the history is shifted to end on the customers'
+         * current debt.
+         */
+        @Modifying
+        @Query(value = "WITH changes AS ("
+                        + "SELECT s.user_id, CAST(s.sale_date AT TIME ZONE :zone AS DATE) AS snapshot_date, "
+                        + "s.total_value AS change FROM sales s "
+                        + "WHERE s.payment_method = 'ON_CREDIT' AND s.customer_id IS NOT NULL "
+                        + "AND (CAST(:userId AS BIGINT) IS NULL OR s.user_id = :userId) "
+                        + "UNION ALL "
+                        + "SELECT c.user_id, CAST(pay.payment_date AT TIME ZONE :zone AS DATE), -pay.amount_paid "
+                        + "FROM payments pay JOIN customers c ON c.id = pay.customer_id "
+                        + "WHERE CAST(:userId AS BIGINT) IS NULL OR c.user_id = :userId"
+                        + "), days AS ("
+                        + "SELECT user_id, snapshot_date, SUM(change) AS change FROM changes "
+                        + "GROUP BY user_id, snapshot_date"
+                        + "), running AS ("
+                        + "SELECT user_id, snapshot_date, change, "
+                        + "SUM(change) OVER (PARTITION BY user_id ORDER BY snapshot_date) AS balance, "
+                        + "SUM(change) OVER (PARTITION BY user_id) AS total FROM days"
+                        + "), debts AS ("
+                        + "SELECT user_id, SUM(debt_balance) AS debt FROM customers "
+                        + "WHERE CAST(:userId AS BIGINT) IS NULL OR user_id = :userId GROUP BY user_id"
+                        + ") "
+                        + "INSERT INTO receivables_snapshots (user_id, snapshot_date, balance, balance_change) "
+                        + "SELECT r.user_id, r.snapshot_date, r.balance + COALESCE(d.debt, 0) - r.total, r.change "
+                        + "FROM running r LEFT JOIN debts d ON d.user_id = r.user_id", nativeQuery = true)
+        int insertFromSources(@Param("userId") Long userId, @Param("zone") String zone);
+}
@@ -2,22 +2,32 @@ package com.flick.business.repository;
 
 import com.flick.business.core.entity.SaleItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface SaleItemRepository extends JpaRepository<SaleItem, Long> {
 
-        @Query("SELECT si.product.id FROM SaleItem si " +
-                        "JOIN si.sale s " +
-                        "WHERE s.user.id = :userId " +
-                        "GROUP BY si.product.id " +
-                        "ORDER BY SUM(si.quantity) DESC LIMIT 3")
-        List<Long> findTop3MostSoldProductIds(@Param("userId") Long userId);
+        /**
+         * Reads the items of many sales with their product summary in one query,
+         * as rows of sale ID, item ID, product ID, product name, quantity and unit
+         * price.
+         */
+        @Query("SELECT si.sale.id, si.id, p.id, p.name, si.quantity, si.unitPrice " +
+                        "FROM SaleItem si JOIN si.product p " +
+                        "WHERE si.sale.id IN :saleIds " +
+                        "ORDER BY si.sale.id, si.id")
+        List<Object[]> findItemRowsBySaleIds(@Param("saleIds") Collection<Long> saleIds);
+
+        @Modifying
+        @Query(value = "DELETE FROM sale_items WHERE sale_id IN (:saleIds)", nativeQuery = true)
+        int deleteBySaleIds(@Param("saleIds") Collection<Long> saleIds);
 
         @Query("SELECT p.name, SUM(si.quantity * si.unitPrice) as totalRevenue " +
                         "FROM SaleItem si JOIN si.product p JOIN si.sale s " +
@@ -27,55 +37,4 @@ public interface SaleItemRepository extends JpaRepository<SaleItem, Long> {
         List<Object[]> findTop5SellingProductsByRevenue(@Param("startDate") ZonedDateTime startDate,
                         @Param("endDate") ZonedDateTime endDate,
                         @Param("userId") Long userId);
-
-        @Query(value = "WITH ProductRevenue AS ( " +
-                        "    SELECT " +
-                        "        p.id AS product_id, " +
-                        "        p.name AS product_name, " +
-                        "        COALESCE(SUM(si.quantity * si.unit_price), 0) AS total_revenue " +
-                        "    FROM products p " +
-                        "    LEFT JOIN sale_items si ON p.id = si.product_id " +
-                        "    LEFT JOIN sales s ON si.sale_id = s.id AND s.sale_date BETWEEN :startDate AND :endDate AND s.user_id = :userId " +
-                        "    WHERE p.active = true AND p.user_id = :userId " +
-                        "    GROUP BY p.id, p.name " +
-                        "), " +
-                        "TotalRevenue AS ( " +
-                        "    SELECT SUM(total_revenue) AS overall_total FROM ProductRevenue " +
-                        "), " +
-                        "ProductContribution AS ( " +
-                        "    SELECT " +
-                        "        pr.product_id, " +
-                        "        pr.product_name, " +
-                        "        pr.total_revenue, " +
-                        "        CASE WHEN tr.overall_total > 0 THEN (pr.total_revenue / tr.overall_total) * 100 ELSE 0 END AS percentage_of_total "
-                        +
-                        "    FROM ProductRevenue pr, TotalRevenue tr " +
-                        "    ORDER BY pr.total_revenue DESC " +
-                        "), " +
-                        "CumulativeContribution AS ( " +
-                        "    SELECT " +
-                        "        product_id, " +
-                        "        product_name, " +
-                        "        total_revenue, " +
-                        "        percentage_of_total, " +
-                        "        SUM(percentage_of_total) OVER (ORDER BY total_revenue DESC, product_name ASC) AS cumulative_percentage "
-                        +
-                        "    FROM ProductContribution " +
-                        ") " +
-                        "SELECT " +
-                        "    product_id, " +
-                        "    product_name, " +
-                        "    total_revenue, " +
-                        "    percentage_of_total, " +
-                        "    cumulative_percentage, " +
-                        "    CASE " +
-                        "        WHEN cumulative_percentage <= 80 THEN 'A' " +
-                        "        WHEN cumulative_percentage <= 95 THEN 'B' " +
-                        "        ELSE 'C' " +
-                        "    END AS abc_class " +
-                        "FROM CumulativeContribution " +
-                        "ORDER BY total_revenue DESC, product_name ASC", nativeQuery = true)
-        List<Object[]> performAbcAnalysis(@Param("startDate") ZonedDateTime startDate,
-                        @Param("endDate") ZonedDateTime endDate,
-                        @Param("userId") Long userId);
 }
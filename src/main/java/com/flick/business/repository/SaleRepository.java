@@ -4,16 +4,23 @@ import com.flick.business.core.entity.Sale;
 import com.flick.business.core.enums.PaymentMethod;
 import com.flick.business.core.enums.PaymentStatus;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SaleRepository extends JpaRepository<Sale, Long>, JpaSpecificationExecutor<Sale> {
@@ -71,6 +78,109 @@ public interface SaleRepository extends JpaRepository<Sale, Long>, JpaSpecificat
                         @Param("endDate") ZonedDateTime endDate,
                         @Param("userId") Long userId);
 
+        /**
+         * Aggregates the filtered sales by a sale-level group: day, week, month,
+         * customer or payment. Each row holds group key, group title, total value,
+         * sale count and item quantity, ordered by group key. Days, weeks and
+         * months are taken in the given zone, as in the daily rollups.
+         */
+        @Query(value = "SELECT g.group_key, g.group_title, SUM(g.total_value), COUNT(*), " +
+                        "COALESCE(SUM(g.item_quantity), 0) " +
+                        "FROM (SELECT " +
+                        "  CASE CAST(:groupBy AS VARCHAR) " +
+                        "    WHEN 'day' THEN TO_CHAR(s.sale_date AT TIME ZONE :zone, 'YYYY-MM-DD') " +
+                        "    WHEN 'week' THEN TO_CHAR(s.sale_date AT TIME ZONE :zone, 'IYYY-\"W\"IW') " +
+                        "    WHEN 'month' THEN TO_CHAR(s.sale_date AT TIME ZONE :zone, 'YYYY-MM') " +
+                        "    WHEN 'customer' THEN COALESCE(CAST(s.customer_id AS VARCHAR), 'NO_CUSTOMER') " +
+                        "    ELSE s.payment_method END AS group_key, " +
+                        "  CASE CAST(:groupBy AS VARCHAR) " +
+                        "    WHEN 'day' THEN TO_CHAR(s.sale_date AT TIME ZONE :zone, 'YYYY-MM-DD') " +
+                        "    WHEN 'week' THEN TO_CHAR(s.sale_date AT TIME ZONE :zone, 'IYYY-\"W\"IW') " +
+                        "    WHEN 'month' THEN TO_CHAR(s.sale_date AT TIME ZONE :zone, 'YYYY-MM') " +
+                        "    WHEN 'customer' THEN COALESCE(c.name, 'No customer') " +
+                        "    ELSE s.payment_method END AS group_title, " +
+                        "  s.total_value, " +
+                        "  (SELECT SUM(si.quantity) FROM sale_items si WHERE si.sale_id = s.id) AS item_quantity " +
+                        "  FROM sales s LEFT JOIN customers c ON c.id = s.customer_id " +
+                        "  WHERE s.user_id = :userId " +
+                        "  AND s.sale_date BETWEEN :startDate AND :endDate " +
+                        "  AND (CAST(:customerId AS BIGINT) IS NULL OR s.customer_id = :customerId) " +
+                        "  AND (CAST(:paymentMethod AS VARCHAR) IS NULL OR s.payment_method = :paymentMethod) " +
+                        "  AND (CAST(:productId AS BIGINT) IS NULL OR EXISTS (SELECT 1 FROM sale_items fi " +
+                        "       WHERE fi.sale_id = s.id AND fi.product_id = :productId))) g " +
+                        "GROUP BY g.group_key, g.group_title " +
+                        "ORDER BY g.group_key", nativeQuery = true)
+        List<Object[]> summarizeSalesByGroup(@Param("groupBy") String groupBy,
+                        @Param("startDate") ZonedDateTime startDate,
+                        @Param("endDate") ZonedDateTime endDate,
+                        @Param("userId") Long userId,
+                        @Param("customerId") Long customerId,
+                        @Param("paymentMethod") String paymentMethod,
+                        @Param("productId") Long productId,
+                        @Param("zone") String zone);
+
+        /**
+         * Aggregates the items of the filtered sales by product or category, with
+         * the same row layout as {@link #summarizeSalesByGroup}. The sale count is
+         * the number of distinct sales containing the group.
+         */
+        @Query(value = "SELECT " +
+                        "  CASE WHEN CAST(:groupBy AS VARCHAR) = 'product' THEN CAST(p.id AS VARCHAR) " +
+                        "       ELSE CAST(cat.id AS VARCHAR) END AS group_key, " +
+                        "  CASE WHEN CAST(:groupBy AS VARCHAR) = 'product' THEN p.name ELSE cat.name END AS group_title, " +
+                        "  SUM(si.quantity * si.unit_price), COUNT(DISTINCT s.id), SUM(si.quantity) " +
+                        "FROM sale_items si " +
+                        "JOIN sales s ON s.id = si.sale_id " +
+                        "JOIN products p ON p.id = si.product_id " +
+                        "JOIN categories cat ON cat.id = p.category_id " +
+                        "WHERE s.user_id = :userId " +
+                        "AND s.sale_date BETWEEN :startDate AND :endDate " +
+                        "AND (CAST(:customerId AS BIGINT) IS NULL OR s.customer_id = :customerId) " +
+                        "AND (CAST(:paymentMethod AS VARCHAR) IS NULL OR s.payment_method = :paymentMethod) " +
+                        "AND (CAST(:productId AS BIGINT) IS NULL OR EXISTS (SELECT 1 FROM sale_items fi " +
+                        "     WHERE fi.sale_id = s.id AND fi.product_id = :productId)) " +
+                        "GROUP BY 1, 2 " +
+                        "ORDER BY 1", nativeQuery = true)
+        List<Object[]> summarizeItemsByGroup(@Param("groupBy") String groupBy,
+                        @Param("startDate") ZonedDateTime startDate,
+                        @Param("endDate") ZonedDateTime endDate,
+                        @Param("userId") Long userId,
+                        @Param("customerId") Long customerId,
+                        @Param("paymentMethod") String paymentMethod,
+                        @Param("productId") Long productId);
+
+        /**
+         * Streams one row per sale item of the filtered sales, ordered by sale, as
+         * plain values so nothing accumulates in the persistence context. The
+         * fetch size makes the driver read through a server-side cursor; the
+         * caller must consume the stream inside a transaction.
+         * <p>
+         * Row layout: sale ID, sale date, payment method, payment status, sale
+         * total, customer ID, customer name, description, item ID, product ID,
+         * product name, quantity, unit price.
+         */
+        @QueryHints({
+                        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+        @Query("SELECT s.id, s.saleDate, s.paymentMethod, s.paymentStatus, s.totalValue, c.id, c.name, " +
+                        "s.description, si.id, p.id, p.name, si.quantity, si.unitPrice " +
+                        "FROM SaleItem si JOIN si.sale s JOIN si.product p LEFT JOIN s.customer c " +
+                        "WHERE s.user.id = :userId " +
+                        "AND s.saleDate BETWEEN :startDate AND :endDate " +
+                        "AND (:customerId IS NULL OR c.id = :customerId) " +
+                        "AND (:paymentMethod IS NULL OR s.paymentMethod = :paymentMethod) " +
+                        "AND (:paymentStatus IS NULL OR s.paymentStatus = :paymentStatus) " +
+                        "AND (:productId IS NULL OR EXISTS (SELECT 1 FROM SaleItem fi WHERE fi.sale = s AND fi.product.id = :productId)) " +
+                        "ORDER BY s.saleDate, s.id, si.id")
+        Stream<Object[]> streamExportRows(
+                        @Param("startDate") ZonedDateTime startDate,
+                        @Param("endDate") ZonedDateTime endDate,
+                        @Param("userId") Long userId,
+                        @Param("customerId") Long customerId,
+                        @Param("paymentMethod") PaymentMethod paymentMethod,
+                        @Param("paymentStatus") PaymentStatus paymentStatus,
+                        @Param("productId") Long productId);
+
         @Query("SELECT s.customer.id FROM Sale s WHERE s.customer IS NOT NULL AND s.user.id = :userId GROUP BY s.customer.id ORDER BY COUNT(s.id) DESC LIMIT 3")
         List<Long> findTop3MostFrequentCustomerIds(@Param("userId") Long userId);
 
@@ -104,21 +214,52 @@ public interface SaleRepository extends JpaRepository<Sale, Long>, JpaSpecificat
          */
         List<Sale> findByCustomerIdAndPaymentStatusAndUserId(Long customerId, PaymentStatus paymentStatus, Long userId);
 
+        /**
+         * Marks pending sales as paid. Only rows still PENDING are changed, so two
+         * concurrent payments cannot both settle the same sale.
+         *
+         * @return The number of sales that were settled.
+         */
+        @Modifying
+        @Query("UPDATE Sale s SET s.paymentStatus = com.flick.business.core.enums.PaymentStatus.PAID " +
+                        "WHERE s.id IN :ids AND s.user.id = :userId " +
+                        "AND s.paymentStatus = com.flick.business.core.enums.PaymentStatus.PENDING")
+        int markPendingAsPaid(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+        /**
+         * Returns the given sale IDs that belong to the user and locks those rows,
+         * so a concurrent payment cannot settle a sale while it is being reversed.
+         */
+        @Query(value = "SELECT id FROM sales WHERE id IN (:ids) AND user_id = :userId FOR UPDATE", nativeQuery = true)
+        List<Long> lockOwnedIds(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+        /**
+         * Returns one row with the earliest and latest sale date among the given
+         * sales of the user, both null when none of them belongs to the user.
+         */
+        @Query("SELECT MIN(s.saleDate), MAX(s.saleDate) FROM Sale s WHERE s.id IN :ids AND s.user.id = :userId")
+        List<Object[]> findSaleDateRange(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+        @Modifying
+        @Query(value = "DELETE FROM sales WHERE id IN (:ids) AND user_id = :userId", nativeQuery = true)
+        int deleteOwnedByIds(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
         /**
          * Calculates the total cost of goods sold (COGS) for all sales within a
          * specific date range.
-         * This is done by summing the product of quantity and the product's cost price
-         * for each sale item.
+         * This is done by summing the product of quantity and the unit cost
+         * recorded on each sale item when it was sold, so later cost changes do
+         * not revalue past sales and the products table is not read.
          *
          * @param startDate The start of the date range.
          * @param endDate   The end of the date range.
          * @return The total COGS as a BigDecimal, or 0 if no sales are found.
          */
-        @Query("SELECT COALESCE(SUM(si.quantity * si.product.costPrice), 0) " +
-                        "FROM SaleItem si " +
-                        "WHERE si.sale.saleDate BETWEEN :startDate AND :endDate " +
-                        "AND si.sale.user.id = :userId " +
-                        "AND si.product.costPrice IS NOT NULL")
+        @Query("SELECT COALESCE(SUM(si.quantity * si.unitCostPrice), 0) " +
+                        "FROM SaleItem si JOIN si.sale s " +
+                        "WHERE s.saleDate BETWEEN :startDate AND :endDate " +
+                        "AND s.user.id = :userId " +
+                        "AND si.unitCostPrice IS NOT NULL")
         BigDecimal sumTotalCostOfGoodsSoldBetween(
                         @Param("startDate") ZonedDateTime startDate,
                         @Param("endDate") ZonedDateTime endDate,
@@ -8,13 +8,29 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class CustomerSpecification {
-    public static Specification<Customer> withFilters(String name, Boolean isActive, Boolean hasDebt, Long userId) {
+    /**
+     * @param search  Part of the name, or digits of the tax ID or phone,
+     *                ranked by relevance unless a sort is given.
+     * @param trigram Whether names also match by pg_trgm similarity.
+     */
+    public static Specification<Customer> withFilters(String search, Boolean isActive, Boolean hasDebt, Long userId,
+            boolean trigram) {
         return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
             predicates.add(cb.equal(root.get("user").get("id"), userId));
 
-            if (name != null && !name.trim().isEmpty()) {
-                predicates.add(cb.like(cb.lower(root.get("name")), "%" + name.toLowerCase() + "%"));
+            String term = SearchSpecification.normalize(search);
+            if (term != null) {
+                List<Predicate> matches = new ArrayList<>();
+                matches.add(SearchSpecification.matchesText(cb, root.get("name"), term, trigram));
+                // tax IDs and phones are kept as typed, so they are compared without punctuation
+                String digits = SearchSpecification.digits(term);
+                if (digits != null) {
+                    matches.add(SearchSpecification.containsDigits(cb, root.get("taxId"), digits));
+                    matches.add(SearchSpecification.containsDigits(cb, root.get("phone"), digits));
+                }
+                predicates.add(cb.or(matches.toArray(new Predicate[0])));
+                SearchSpecification.orderByRelevance(root, query, cb, "name", term, trigram);
             }
             if (isActive != null) {
                 predicates.add(cb.equal(root.get("active"), isActive));
@@ -12,14 +12,18 @@ import com.flick.business.core.enums.ExpenseType;
 import jakarta.persistence.criteria.Predicate;
 
 public class ExpenseSpecification {
+    /**
+     * @param trigram Whether names also match by pg_trgm similarity.
+     */
     public static Specification<Expense> withFilters(String name, ZonedDateTime startDate, ZonedDateTime endDate,
-            ExpenseType expenseType, Long userId) {
+            ExpenseType expenseType, Long userId, boolean trigram) {
         return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
             predicates.add(cb.equal(root.get("user").get("id"), userId));
 
-            if (name != null && !name.trim().isEmpty()) {
-                predicates.add(cb.like(cb.lower(root.get("name")), "%" + name.toLowerCase() + "%"));
+            String term = SearchSpecification.normalize(name);
+            if (term != null) {
+                predicates.add(SearchSpecification.matchesText(cb, root.get("name"), term, trigram));
             }
             if (startDate != null) {
                 predicates.add(cb.greaterThanOrEqualTo(root.get("expenseDate"), startDate));
@@ -7,17 +7,23 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class ProductSpecification {
-  public static Specification<Product> withFilters(String name, Long categoryId, Long userId) {
+  /**
+   * @param search  Part of the name or barcode, ranked by relevance unless
+   *                the page is sorted.
+   * @param trigram Whether names also match by pg_trgm similarity.
+   */
+  public static Specification<Product> withFilters(String search, Long categoryId, Long userId, boolean trigram) {
     return (root, query, criteriaBuilder) -> {
       List<Predicate> predicates = new ArrayList<>();
-      if (query != null) {
-        query.distinct(true);
-      }
       predicates.add(criteriaBuilder.equal(root.get("user").get("id"), userId));
 
-      if (name != null && !name.trim().isEmpty()) {
-        predicates.add(
-            criteriaBuilder.like(criteriaBuilder.lower(root.get("name")), "%" + name.toLowerCase() + "%"));
+      // no joins, so rows are already distinct; DISTINCT would also reject the relevance order
+      String term = SearchSpecification.normalize(search);
+      if (term != null) {
+        predicates.add(criteriaBuilder.or(
+            SearchSpecification.matchesText(criteriaBuilder, root.get("name"), term, trigram),
+            SearchSpecification.containsCode(criteriaBuilder, criteriaBuilder.lower(root.get("barcode")), term)));
+        SearchSpecification.orderByRelevance(root, query, criteriaBuilder, "name", term, trigram);
       }
 
       if (categoryId != null) {
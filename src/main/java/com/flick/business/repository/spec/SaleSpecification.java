@@ -27,9 +27,9 @@ public class SaleSpecification {
             List<Predicate> predicates = new ArrayList<>();
             predicates.add(cb.equal(root.get("user").get("id"), userId));
 
+            // customer is to-one, so the fetch adds no duplicate rows and needs no distinct
             if (query != null && query.getResultType() != Long.class && query.getResultType() != long.class) {
                 root.fetch("customer", JoinType.LEFT);
-                query.distinct(true);
             }
 
             if (startDate != null) {
@@ -58,4 +58,22 @@ public class SaleSpecification {
             return cb.and(predicates.toArray(new Predicate[0]));
         };
     }
+
+    /**
+     * Keyset predicate selecting the sales that come after ({@code key}, {@code id})
+     * in the given direction, with id as tie-breaker.
+     */
+    public static <Y extends Comparable<? super Y>> Specification<Sale> seekAfter(
+            String attribute, Y key, Long id, boolean descending) {
+        return (root, query, cb) -> {
+            Path<Y> keyPath = root.get(attribute);
+            Path<Long> idPath = root.get("id");
+            if (descending) {
+                return cb.or(cb.lessThan(keyPath, key),
+                        cb.and(cb.equal(keyPath, key), cb.lessThan(idPath, id)));
+            }
+            return cb.or(cb.greaterThan(keyPath, key),
+                    cb.and(cb.equal(keyPath, key), cb.greaterThan(idPath, id)));
+        };
+    }
 }
@@ -0,0 +1,106 @@
+package com.flick.business.repository.spec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Search box matching shared by the listing specifications. Terms match
+ * anywhere in a column, ignoring case. With trigram matching, which needs
+ * pg_trgm and the indexes of db/scripts/006, names also match words typed
+ * with small mistakes, and the trigram GIN indexes serve both forms. Without
+ * it the plain LIKE predicates run on any database, H2 included.
+ */
+public final class SearchSpecification {
+    /** pg_trgm's {@code <%} operator, registered by TrigramFunctionContributor. */
+    public static final String WORD_SIMILAR = "word_similar";
+    public static final String WORD_SIMILARITY = "word_similarity";
+    /** Drops everything but letters and digits, registered by TrigramFunctionContributor. */
+    public static final String STRIP_PUNCTUATION = "strip_punctuation";
+
+    private static final char LIKE_ESCAPE = '\\';
+    /** A number as typed, such as "(11) 98765-4321" or "123.456.789-00". */
+    private static final Pattern NUMBER_TERM = Pattern.compile("[\\d\\s().,/+-]*\\d[\\d\\s().,/+-]*");
+
+    private SearchSpecification() {
+    }
+
+    /** The term as matched against lowercased columns, or null when blank. */
+    public static String normalize(String term) {
+        return (term == null || term.isBlank()) ? null : term.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The digits of a term made of digits and punctuation, for columns such
+     * as tax ID and phone, or null for any other term, so a name with a
+     * number in it does not match every code holding that digit.
+     */
+    public static String digits(String term) {
+        if (term == null || !NUMBER_TERM.matcher(term).matches()) {
+            return null;
+        }
+        return term.replaceAll("\\D", "");
+    }
+
+    /** Text column containing the normalized term, or similar to it when trigram matching is on. */
+    public static Predicate matchesText(CriteriaBuilder cb, Expression<String> column, String term,
+            boolean trigram) {
+        Expression<String> lowered = cb.lower(column);
+        Predicate contains = cb.like(lowered, "%" + escape(term) + "%", LIKE_ESCAPE);
+        if (!trigram) {
+            return contains;
+        }
+        return cb.or(contains, cb.isTrue(cb.function(WORD_SIMILAR, Boolean.class, cb.literal(term), lowered)));
+    }
+
+    /** Code column, such as a barcode, containing the value as typed. */
+    public static Predicate containsCode(CriteriaBuilder cb, Expression<String> column, String value) {
+        return cb.like(column, "%" + escape(value) + "%", LIKE_ESCAPE);
+    }
+
+    /**
+     * Code column, such as a tax ID or phone, whose letters and digits
+     * contain the given digits, however the code was punctuated when stored.
+     */
+    public static Predicate containsDigits(CriteriaBuilder cb, Expression<String> column, String digits) {
+        return containsCode(cb, cb.function(STRIP_PUNCTUATION, String.class, column), digits);
+    }
+
+    /**
+     * Orders the rows by how well a text attribute matches the term: exact
+     * matches first, then prefixes, then by trigram similarity when it is on,
+     * with the attribute and ID breaking ties. Count queries are left alone,
+     * and a sorted Pageable replaces this order.
+     */
+    public static void orderByRelevance(Root<?> root, CriteriaQuery<?> query, CriteriaBuilder cb,
+            String attribute, String term, boolean trigram) {
+        if (query == null || query.getResultType() == Long.class || query.getResultType() == long.class) {
+            return;
+        }
+        Expression<String> column = root.get(attribute);
+        Expression<String> lowered = cb.lower(column);
+        List<Order> orders = new ArrayList<>();
+        orders.add(cb.asc(cb.<Integer>selectCase()
+                .when(cb.equal(lowered, term), 0)
+                .when(cb.like(lowered, escape(term) + "%", LIKE_ESCAPE), 1)
+                .otherwise(2)));
+        if (trigram) {
+            orders.add(cb.desc(cb.function(WORD_SIMILARITY, Double.class, cb.literal(term), lowered)));
+        }
+        orders.add(cb.asc(column));
+        orders.add(cb.asc(root.get("id")));
+        query.orderBy(orders);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -1,11 +1,13 @@
 package com.flick.business.service;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -33,6 +35,11 @@ public class CustomerService {
   private final CustomerMapper customerMapper;
   private final SaleRepository saleRepository;
   private final AuthenticatedUserService authenticatedUserService;
+  private final DataVersionService dataVersionService;
+
+  /** Whether name searches also match by pg_trgm similarity; needs db/scripts/006. */
+  @Value("${app.search.trigram:false}")
+  private boolean trigramSearch;
 
   @Transactional
   public CustomerResponse save(CustomerRequest request) {
@@ -41,6 +48,7 @@ public class CustomerService {
     Customer customer = customerMapper.toEntity(request);
     customer.setUser(currentUser);
     Customer savedCustomer = customerRepository.save(customer);
+    dataVersionService.bump();
 
     return CustomerResponse.fromEntity(savedCustomer);
   }
@@ -70,14 +78,15 @@ public class CustomerService {
 
     customerMapper.updateEntityFromRequest(request, existingCustomer);
     Customer updatedCustomer = customerRepository.save(existingCustomer);
+    dataVersionService.bump();
     return CustomerResponse.fromEntity(updatedCustomer);
   }
 
   @Transactional(readOnly = true)
   public List<CustomerResponse> listAll(String name, Boolean isActive, Boolean hasDebt, String orderBy) {
-    Sort sort = createSort(orderBy);
+    Sort sort = createSort(orderBy, name != null && !name.isBlank());
     Specification<Customer> spec = CustomerSpecification.withFilters(name, isActive, hasDebt,
-        authenticatedUserService.getAuthenticatedUserId());
+        authenticatedUserService.getAuthenticatedUserId(), trigramSearch);
     List<Customer> customers = customerRepository.findAll(spec, sort);
     return customers.stream()
         .map(CustomerResponse::fromEntity)
@@ -92,12 +101,56 @@ public class CustomerService {
     }
     customer.setActive(active);
     customerRepository.save(customer);
+    dataVersionService.bump();
   }
 
   @Transactional
   public void deletePermanently(Long id) {
     Customer customer = findEntityById(id);
     customerRepository.delete(customer);
+    dataVersionService.bump();
+  }
+
+  /**
+   * Adds an ON_CREDIT purchase to the customer's debt with a single guarded
+   * UPDATE. The managed entity is not modified, so dirty checking never writes
+   * a stale balance back over concurrent changes.
+   *
+   * @param customer Customer buying on credit.
+   * @param amount   Value of the purchase.
+   */
+  @Transactional
+  public void chargeCredit(Customer customer, BigDecimal amount) {
+    Long userId = authenticatedUserService.getAuthenticatedUserId();
+    if (customerRepository.chargeDebtWithinLimit(customer.getId(), userId, amount) == 0) {
+      throw new BusinessException("Credit limit exceeded for customer: " + customer.getName());
+    }
+  }
+
+  /**
+   * Subtracts a payment or a reversed ON_CREDIT sale from the customer's debt
+   * with a single UPDATE, for the same reason as {@link #chargeCredit}.
+   *
+   * @param customer Customer whose debt is reduced.
+   * @param amount   Value to subtract.
+   */
+  @Transactional
+  public void reduceDebt(Customer customer, BigDecimal amount) {
+    Long userId = authenticatedUserService.getAuthenticatedUserId();
+    if (customerRepository.reduceDebt(customer.getId(), userId, amount) == 0) {
+      throw new ResourceNotFoundException("Customer not found with ID: " + customer.getId());
+    }
+  }
+
+  /**
+   * Reverses the debt of ON_CREDIT sales that are about to be deleted, with one
+   * UPDATE for all affected customers.
+   *
+   * @param saleIds IDs of the sales being deleted.
+   */
+  @Transactional
+  public void reverseDebtOfPendingSales(Collection<Long> saleIds) {
+    customerRepository.reduceDebtOfPendingSales(saleIds, authenticatedUserService.getAuthenticatedUserId());
   }
 
   private void validateTaxId(String taxId, Long currentCustomerId) {
@@ -112,12 +165,14 @@ public class CustomerService {
     }
   }
 
-  private Sort createSort(String orderBy) {
+  /** Searches default to relevance, which the specification orders by when the sort is empty. */
+  private Sort createSort(String orderBy, boolean searching) {
     if (orderBy == null || orderBy.isBlank()) {
-      return Sort.by(Sort.Direction.ASC, "name");
+      return searching ? Sort.unsorted() : Sort.by(Sort.Direction.ASC, "name");
     }
     String normalized = orderBy.trim().toLowerCase(Locale.ROOT);
     return switch (normalized) {
+      case "relevance" -> searching ? Sort.unsorted() : Sort.by(Sort.Direction.ASC, "name");
       case "name_asc", "nameasc" -> Sort.by(Sort.Direction.ASC, "name");
       case "name_desc" -> Sort.by(Sort.Direction.DESC, "name");
       case "price_desc" -> Sort.by(Sort.Direction.DESC, "debtBalance");
@@ -0,0 +1,76 @@
+package com.flick.business.service;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.flick.business.core.entity.Sale;
+import com.flick.business.core.entity.SaleItem;
+import com.flick.business.repository.DailyProductSalesRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Keeps the daily_product_sales rollup in step with sales. Every write joins
+ * the caller's transaction, so the rollup commits or rolls back together with
+ * the sales it reflects.
+ */
+@Service
+@RequiredArgsConstructor
+public class DailyProductSalesService {
+    private final DailyProductSalesRepository productSalesRepository;
+    private final DailySalesSummaryService dailySalesSummaryService;
+
+    /**
+     * Adds the items of a newly registered sale to their products on the day
+     * of the sale. The items are taken from the sale itself, as they may not
+     * be flushed yet.
+     *
+     * @param sale Saved sale with its items, at most one per product.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSale(Sale sale) {
+        List<SaleItem> items = sale.getItems().stream()
+                .sorted(Comparator.comparing(item -> item.getProduct().getId()))
+                .toList();
+        if (items.isEmpty()) {
+            return;
+        }
+        productSalesRepository.addSale(sale.getUser().getId(),
+                dailySalesSummaryService.toLocalDate(sale.getSaleDate()),
+                items.stream().map(item -> item.getProduct().getId()).toArray(Long[]::new),
+                items.stream().map(SaleItem::getTotalValue).toArray(BigDecimal[]::new),
+                items.stream().map(SaleItem::getQuantity).toArray(BigDecimal[]::new));
+    }
+
+    /**
+     * Removes sales that are about to be deleted from their products and days.
+     *
+     * @param saleIds IDs of sales that still exist, with their items.
+     * @param userId  Owner of the sales.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reverseSales(Collection<Long> saleIds, Long userId) {
+        productSalesRepository.subtractSales(saleIds, userId, dailySalesSummaryService.getZone().getId());
+        productSalesRepository.deleteEmptyRowsOfSales(saleIds, userId);
+    }
+
+    /**
+     * Recomputes the rollup from the sale items. Writers wait while it runs,
+     * so it is meant for backfills and repairs, not for regular use.
+     *
+     * @param userId Tenant to rebuild, or null for all tenants.
+     * @return Number of rollup rows written.
+     */
+    @Transactional
+    public int rebuild(Long userId) {
+        productSalesRepository.lockForRebuild();
+        productSalesRepository.deleteForRebuild(userId);
+        return productSalesRepository.insertFromSources(userId, dailySalesSummaryService.getZone().getId());
+    }
+}
@@ -0,0 +1,122 @@
+package com.flick.business.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.flick.business.core.entity.Expense;
+import com.flick.business.core.entity.Payment;
+import com.flick.business.core.entity.Sale;
+import com.flick.business.core.entity.SaleItem;
+import com.flick.business.repository.DailySalesSummaryRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Keeps the daily_sales_summary rollup in step with sales, expenses and
+ * credit payments. Every write joins the caller's transaction, so the rollup
+ * commits or rolls back together with the change it reflects.
+ */
+@Service
+@RequiredArgsConstructor
+public class DailySalesSummaryService {
+    private final DailySalesSummaryRepository summaryRepository;
+
+    /** Zone whose calendar days the rollup is keyed by; the JVM zone if blank. */
+    @Value("${app.reporting.zone:}")
+    private String zoneId;
+
+    private ZoneId zone;
+
+    @PostConstruct
+    void initZone() {
+        zone = (zoneId == null || zoneId.isBlank()) ? ZoneId.systemDefault() : ZoneId.of(zoneId);
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * Calendar day of an instant in the reporting zone.
+     *
+     * @param dateTime Instant to convert, or null for now.
+     */
+    public LocalDate toLocalDate(ZonedDateTime dateTime) {
+        return (dateTime != null ? dateTime : ZonedDateTime.now()).withZoneSameInstant(zone).toLocalDate();
+    }
+
+    /**
+     * Adds a newly registered sale to its day.
+     *
+     * @param sale         Saved sale with its items.
+     * @param costOfGoods  Cost of the items sold, at the cost recorded on them.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSale(Sale sale, BigDecimal costOfGoods) {
+        BigDecimal itemsSold = sale.getItems().stream()
+                .map(SaleItem::getQuantity)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        summaryRepository.addSales(sale.getUser().getId(), toLocalDate(sale.getSaleDate()),
+                sale.getPaymentMethod().name(), sale.getTotalValue(), costOfGoods, 1, itemsSold);
+    }
+
+    /**
+     * Removes sales that are about to be deleted from their days, with the
+     * cost of goods recorded on their items.
+     *
+     * @param saleIds IDs of sales that still exist.
+     * @param userId  Owner of the sales.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reverseSales(Collection<Long> saleIds, Long userId) {
+        summaryRepository.subtractSales(saleIds, userId, zone.getId());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordExpense(Expense expense) {
+        applyExpense(expense, expense.getValue());
+    }
+
+    /**
+     * Removes an expense from its day. Call it before the expense is deleted,
+     * or before it is changed with the values it had when recorded.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reverseExpense(Expense expense) {
+        applyExpense(expense, expense.getValue().negate());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreditPayment(Payment payment) {
+        summaryRepository.addCreditPayments(payment.getCustomer().getUser().getId(),
+                toLocalDate(payment.getPaymentDate()), payment.getPaymentMethod().name(), payment.getAmountPaid());
+    }
+
+    /**
+     * Recomputes the rollup from the source tables. Writers wait while it runs,
+     * so it is meant for backfills and repairs, not for regular use.
+     *
+     * @param userId Tenant to rebuild, or null for all tenants.
+     * @return Number of rollup rows written.
+     */
+    @Transactional
+    public int rebuild(Long userId) {
+        summaryRepository.lockForRebuild();
+        summaryRepository.deleteForRebuild(userId);
+        return summaryRepository.insertFromSources(userId, zone.getId());
+    }
+
+    private void applyExpense(Expense expense, BigDecimal amount) {
+        summaryRepository.addExpenses(expense.getUser().getId(), toLocalDate(expense.getExpenseDate()),
+                expense.getPaymentMethod().name(), amount);
+    }
+}
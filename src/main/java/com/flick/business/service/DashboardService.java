@@ -3,62 +3,145 @@ package com.flick.business.service;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.ZonedDateTime;
-import java.util.Collections;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.flick.business.api.dto.response.aministration.DashboardResponse;
 import com.flick.business.api.dto.response.common.ChartDataPoint;
 import com.flick.business.api.dto.response.common.MetricCardData;
 import com.flick.business.api.dto.response.common.TimeSeriesDataPoint;
-import com.flick.business.core.enums.PaymentMethod;
-import com.flick.business.repository.ExpenseRepository;
+import com.flick.business.repository.DailySalesSummaryRepository;
 import com.flick.business.repository.SaleItemRepository;
-import com.flick.business.repository.SaleRepository;
-import com.flick.business.repository.CustomerRepository;
 import com.flick.business.service.security.AuthenticatedUserService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 public class DashboardService {
-        private final SaleRepository saleRepository;
-        private final ExpenseRepository expenseRepository;
+        private static final String TOTAL_ROW = "TOTAL";
+        private static final String METHOD_ROW = "METHOD";
+        private static final String DAY_ROW = "DAY";
+        private static final String RECEIVABLES_ROW = "RECEIVABLES";
+        private static final String OPENING_RECEIVABLES_ROW = "OPENING_RECEIVABLES";
+        private static final int SPARKLINE_BUCKETS = 12;
+
+        private static final String METRICS_SECTION = "metrics";
+        private static final String TOP_PRODUCTS_SECTION = "topSellingProducts";
+
         private final SaleItemRepository saleItemRepository;
-        private final CustomerRepository customerRepository;
+        private final DailySalesSummaryRepository summaryRepository;
+        private final DailySalesSummaryService dailySalesSummaryService;
         private final AuthenticatedUserService authenticatedUserService;
+        private final PlatformTransactionManager transactionManager;
+
+        /** Runs the dashboard queries concurrently instead of one after another. */
+        @Value("${app.dashboard.parallel:false}")
+        private boolean parallel;
+
+        /** Time budget of a parallel dashboard; late sections are returned empty and stale. */
+        @Value("${app.dashboard.deadline:PT3S}")
+        private Duration deadline;
+
+        /** Dashboard queries allowed in flight at once, across all requests. */
+        @Value("${app.dashboard.max-concurrent-queries:8}")
+        private int maxConcurrentQueries;
+
+        private Semaphore queryPermits;
+        private ExecutorService executor;
+        private TransactionTemplate readOnlyTransaction;
+        private TransactionTemplate boundedReadOnlyTransaction;
+
+        @PostConstruct
+        void initExecution() {
+                queryPermits = new Semaphore(maxConcurrentQueries, true);
+                executor = Executors.newVirtualThreadPerTaskExecutor();
 
-        @Transactional(readOnly = true)
+                readOnlyTransaction = new TransactionTemplate(transactionManager);
+                readOnlyTransaction.setReadOnly(true);
+
+                // queries of a parallel dashboard are cancelled by the database once the budget is spent
+                boundedReadOnlyTransaction = new TransactionTemplate(transactionManager);
+                boundedReadOnlyTransaction.setReadOnly(true);
+                boundedReadOnlyTransaction.setTimeout((int) Math.max(1, deadline.toSeconds()));
+        }
+
+        @PreDestroy
+        void shutdownExecution() {
+                executor.shutdownNow();
+        }
+
+        /**
+         * Builds the dashboard with two statements: one over the daily rollup and
+         * receivables snapshots for the cards of both windows, the payment method
+         * chart and the trend, and one over sale items for the top products. In
+         * parallel mode both run at once, each on its own read-only connection,
+         * and a section that misses the deadline is listed in staleSections.
+         */
         public DashboardResponse getDashboardSummary(ZonedDateTime startDate, ZonedDateTime endDate) {
                 Long userId = authenticatedUserService.getAuthenticatedUserId();
-                long durationDays = Duration.between(startDate, endDate).toDays() + 1;
-                ZonedDateTime previousStartDate = startDate.minusDays(durationDays);
-                ZonedDateTime previousEndDate = endDate.minusDays(durationDays);
+                LocalDate startDay = dailySalesSummaryService.toLocalDate(startDate);
+                LocalDate endDay = dailySalesSummaryService.toLocalDate(endDate);
+                long durationDays = ChronoUnit.DAYS.between(startDay, endDay) + 1;
+                LocalDate previousStartDay = startDay.minusDays(durationDays);
 
-                Long currentSaleCount = saleRepository.countSalesBetween(startDate, endDate, userId);
-                Long previousSaleCount = saleRepository.countSalesBetween(previousStartDate, previousEndDate, userId);
+                Supplier<List<Object[]>> metricsQuery = () -> summaryRepository.summarizeDashboard(previousStartDay,
+                                startDay, endDay, userId);
+                Supplier<List<Object[]>> topProductsQuery = () -> saleItemRepository
+                                .findTop5SellingProductsByRevenue(startDate, endDate, userId);
 
-                BigDecimal currentGrossRevenue = saleRepository.sumTotalValueBetweenDates(startDate, endDate, userId);
-                BigDecimal previousGrossRevenue = saleRepository.sumTotalValueBetweenDates(previousStartDate,
-                                previousEndDate, userId);
+                List<Object[]> rows;
+                List<Object[]> topSellingProductsRaw;
+                List<String> staleSections = new ArrayList<>();
+                if (parallel) {
+                        long deadlineNanos = System.nanoTime() + deadline.toNanos();
+                        Future<List<Object[]>> metrics = submit(metricsQuery, deadlineNanos);
+                        Future<List<Object[]>> topProducts = submit(topProductsQuery, deadlineNanos);
+                        rows = await(metrics, deadlineNanos, METRICS_SECTION, staleSections);
+                        topSellingProductsRaw = await(topProducts, deadlineNanos, TOP_PRODUCTS_SECTION,
+                                        staleSections);
+                } else {
+                        List<List<Object[]>> results = readOnlyTransaction.execute(status -> List.of(
+                                        metricsQuery.get(), topProductsQuery.get()));
+                        rows = results.get(0);
+                        topSellingProductsRaw = results.get(1);
+                }
 
-                BigDecimal currentTotalExpenses = expenseRepository.sumTotalValueBetweenDates(startDate, endDate,
-                                userId);
-                BigDecimal previousTotalExpenses = expenseRepository.sumTotalValueBetweenDates(previousStartDate,
-                                previousEndDate, userId);
+                Object[] totals = rows.stream()
+                                .filter(row -> TOTAL_ROW.equals(row[0]))
+                                .findFirst()
+                                .orElse(null);
 
-                List<Object[]> salesByPaymentMethodRaw = saleRepository.sumTotalGroupByPaymentMethodBetween(startDate,
-                                endDate, userId);
-                List<Object[]> topSellingProductsRaw = saleItemRepository.findTop5SellingProductsByRevenue(startDate,
-                                endDate, userId);
-                List<Object[]> revenueTrendRaw = saleRepository.findRevenueByDay(startDate, endDate, userId);
-                List<Object[]> expenseTrendRaw = expenseRepository.findExpenseByDay(startDate, endDate, userId);
+                BigDecimal currentGrossRevenue = amount(totals, 3);
+                BigDecimal previousGrossRevenue = amount(totals, 4);
+                long currentSaleCount = count(totals, 5);
+                long previousSaleCount = count(totals, 6);
+                BigDecimal currentTotalExpenses = amount(totals, 7);
+                BigDecimal previousTotalExpenses = amount(totals, 8);
 
                 BigDecimal currentAverageTicket = (currentSaleCount > 0)
                                 ? currentGrossRevenue.divide(new BigDecimal(currentSaleCount), 2, RoundingMode.HALF_UP)
@@ -67,44 +150,42 @@ public class DashboardService {
                                 ? previousGrossRevenue.divide(new BigDecimal(previousSaleCount), 2,
                                                 RoundingMode.HALF_UP)
                                 : BigDecimal.ZERO;
-                BigDecimal currentTotalReceivables = customerRepository.findTotalDebtBalance(userId);
-                BigDecimal previousTotalReceivables = currentTotalReceivables;
-
-                MetricCardData totalReceivablesCard = buildMetricCard(currentTotalReceivables,
-                                previousTotalReceivables);
-                MetricCardData averageTicketCard = buildMetricCard(currentAverageTicket, previousAverageTicket);
-
-                MetricCardData grossRevenueCard = buildMetricCard(currentGrossRevenue, previousGrossRevenue);
-                MetricCardData totalExpensesCard = buildMetricCard(currentTotalExpenses, previousTotalExpenses);
+                Receivables receivables = toReceivables(rows);
+                // today's balance is read live from the customers; a window that ended earlier uses its snapshot
+                BigDecimal currentTotalReceivables = endDay.isBefore(dailySalesSummaryService.toLocalDate(null))
+                                ? receivables.at(endDay)
+                                : amount(totals, 9);
+                BigDecimal previousTotalReceivables = receivables.opening();
 
                 BigDecimal currentNetProfit = currentGrossRevenue.subtract(currentTotalExpenses);
                 BigDecimal previousNetProfit = previousGrossRevenue.subtract(previousTotalExpenses);
-                MetricCardData netProfitCard = buildMetricCard(currentNetProfit, previousNetProfit);
 
-                Map<String, BigDecimal> revenueByDate = revenueTrendRaw.stream()
-                                .collect(Collectors.toMap(
-                                                row -> row[0].toString(),
-                                                row -> (BigDecimal) row[1]));
+                Sparklines sparklines = buildSparklines(rows, startDay, durationDays, receivables);
 
-                Map<String, BigDecimal> expenseByDate = expenseTrendRaw.stream()
-                                .collect(Collectors.toMap(
-                                                row -> row[0].toString(), // Chave: "2023-10-28"
-                                                row -> (BigDecimal) row[1]));
+                MetricCardData totalReceivablesCard = buildMetricCard(currentTotalReceivables,
+                                previousTotalReceivables, sparklines.receivables());
+                MetricCardData averageTicketCard = buildMetricCard(currentAverageTicket, previousAverageTicket,
+                                sparklines.averageTicket());
+                MetricCardData grossRevenueCard = buildMetricCard(currentGrossRevenue, previousGrossRevenue,
+                                sparklines.revenue());
+                MetricCardData totalExpensesCard = buildMetricCard(currentTotalExpenses, previousTotalExpenses,
+                                sparklines.expenses());
+                MetricCardData netProfitCard = buildMetricCard(currentNetProfit, previousNetProfit,
+                                sparklines.netProfit());
 
-                List<ChartDataPoint> salesByPaymentMethod = salesByPaymentMethodRaw.stream()
-                                .map(row -> new ChartDataPoint(((PaymentMethod) row[0]).toString(),
-                                                (BigDecimal) row[1]))
+                List<ChartDataPoint> salesByPaymentMethod = rows.stream()
+                                .filter(row -> METHOD_ROW.equals(row[0]) && count(row, 5) > 0)
+                                .map(row -> new ChartDataPoint((String) row[2], amount(row, 3)))
                                 .collect(Collectors.toList());
 
-                List<TimeSeriesDataPoint> trend = Stream
-                                .concat(revenueByDate.keySet().stream(), expenseByDate.keySet().stream())
-                                .distinct()
-                                .sorted()
-                                .map(date -> {
-                                        BigDecimal revenue = revenueByDate.getOrDefault(date, BigDecimal.ZERO);
-                                        BigDecimal expense = expenseByDate.getOrDefault(date, BigDecimal.ZERO);
-                                        BigDecimal profit = revenue.subtract(expense);
-                                        return new TimeSeriesDataPoint(date, revenue, profit, currentTotalReceivables);
+                List<TimeSeriesDataPoint> trend = rows.stream()
+                                .filter(row -> DAY_ROW.equals(row[0]))
+                                .filter(row -> amount(row, 3).signum() != 0 || amount(row, 7).signum() != 0)
+                                .map(row -> {
+                                        BigDecimal revenue = amount(row, 3);
+                                        BigDecimal profit = revenue.subtract(amount(row, 7));
+                                        return new TimeSeriesDataPoint(row[1].toString(), revenue, profit,
+                                                        receivables.at(toLocalDate(row[1])));
                                 })
                                 .collect(Collectors.toList());
 
@@ -120,16 +201,157 @@ public class DashboardService {
                                 averageTicketCard,
                                 salesByPaymentMethod,
                                 topSellingProducts,
-                                trend);
+                                trend,
+                                staleSections);
+        }
+
+        /**
+         * Runs a query on a virtual thread once a permit is free. A query that
+         * cannot get a permit before the deadline never touches the pool.
+         */
+        private Future<List<Object[]>> submit(Supplier<List<Object[]>> query, long deadlineNanos) {
+                return executor.submit(() -> {
+                        if (!queryPermits.tryAcquire(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                                throw new TimeoutException("No dashboard query permit before the deadline");
+                        }
+                        try {
+                                return boundedReadOnlyTransaction.execute(status -> query.get());
+                        } finally {
+                                queryPermits.release();
+                        }
+                });
+        }
+
+        private List<Object[]> await(Future<List<Object[]>> future, long deadlineNanos, String section,
+                        List<String> staleSections) {
+                try {
+                        return future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException ex) {
+                        future.cancel(true);
+                } catch (InterruptedException ex) {
+                        future.cancel(true);
+                        Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                        Throwable cause = ex.getCause();
+                        boolean timedOut = cause instanceof TimeoutException
+                                        || cause instanceof QueryTimeoutException
+                                        || cause instanceof TransactionTimedOutException;
+                        if (!timedOut) {
+                                throw (cause instanceof RuntimeException runtime) ? runtime
+                                                : new IllegalStateException(cause);
+                        }
+                }
+                staleSections.add(section);
+                return List.of();
+        }
+
+        private static BigDecimal amount(Object[] row, int column) {
+                return (row != null && row[column] != null) ? (BigDecimal) row[column] : BigDecimal.ZERO;
+        }
+
+        private static long count(Object[] row, int column) {
+                return (row != null && row[column] != null) ? ((Number) row[column]).longValue() : 0L;
         }
 
-        private MetricCardData buildMetricCard(BigDecimal currentValue, BigDecimal previousValue) {
+        private MetricCardData buildMetricCard(BigDecimal currentValue, BigDecimal previousValue,
+                        List<BigDecimal> sparklineData) {
                 BigDecimal percentageChange = calculatePercentageChange(currentValue, previousValue);
-                List<BigDecimal> sparklineData = Collections.emptyList();
 
                 return new MetricCardData(currentValue, percentageChange, sparklineData);
         }
 
+        /**
+         * Receivables history of the window: the balance at the end of the
+         * previous window and the balance of each day of the window on which
+         * it changed.
+         */
+        private record Receivables(BigDecimal opening, NavigableMap<LocalDate, BigDecimal> snapshots) {
+
+                BigDecimal at(LocalDate day) {
+                        Map.Entry<LocalDate, BigDecimal> snapshot = snapshots.floorEntry(day);
+                        return snapshot != null ? snapshot.getValue() : opening;
+                }
+        }
+
+        private static Receivables toReceivables(List<Object[]> rows) {
+                BigDecimal opening = BigDecimal.ZERO;
+                NavigableMap<LocalDate, BigDecimal> snapshots = new TreeMap<>();
+                for (Object[] row : rows) {
+                        if (OPENING_RECEIVABLES_ROW.equals(row[0])) {
+                                opening = amount(row, 9);
+                        } else if (RECEIVABLES_ROW.equals(row[0])) {
+                                snapshots.put(toLocalDate(row[1]), amount(row, 9));
+                        }
+                }
+                return new Receivables(opening, snapshots);
+        }
+
+        private record Sparklines(List<BigDecimal> revenue, List<BigDecimal> expenses, List<BigDecimal> netProfit,
+                        List<BigDecimal> averageTicket, List<BigDecimal> receivables) {
+        }
+
+        /**
+         * Folds the day rows of the current window into at most
+         * SPARKLINE_BUCKETS consecutive buckets of equal length, so the payload
+         * does not grow with the range. Receivables are the balance at the end
+         * of each bucket, from the snapshots.
+         */
+        private Sparklines buildSparklines(List<Object[]> rows, LocalDate startDay, long durationDays,
+                        Receivables receivables) {
+                long days = Math.max(1, durationDays);
+                int buckets = (int) Math.min(SPARKLINE_BUCKETS, days);
+                BigDecimal[] revenue = zeros(buckets);
+                BigDecimal[] expenses = zeros(buckets);
+                long[] saleCounts = new long[buckets];
+
+                for (Object[] row : rows) {
+                        if (!DAY_ROW.equals(row[0])) {
+                                continue;
+                        }
+                        int bucket = bucketOf(toLocalDate(row[1]), startDay, days, buckets);
+                        revenue[bucket] = revenue[bucket].add(amount(row, 3));
+                        saleCounts[bucket] += count(row, 5);
+                        expenses[bucket] = expenses[bucket].add(amount(row, 7));
+                }
+
+                List<BigDecimal> netProfit = new ArrayList<>(buckets);
+                List<BigDecimal> averageTicket = new ArrayList<>(buckets);
+                for (int i = 0; i < buckets; i++) {
+                        netProfit.add(revenue[i].subtract(expenses[i]));
+                        averageTicket.add(saleCounts[i] > 0
+                                        ? revenue[i].divide(new BigDecimal(saleCounts[i]), 2, RoundingMode.HALF_UP)
+                                        : BigDecimal.ZERO);
+                }
+
+                // the last snapshot of a bucket is its closing balance; buckets without one carry the previous
+                BigDecimal[] closingReceivables = new BigDecimal[buckets];
+                receivables.snapshots().forEach((day, balance) -> closingReceivables[bucketOf(day, startDay, days,
+                                buckets)] = balance);
+                BigDecimal balance = receivables.opening();
+                for (int i = 0; i < buckets; i++) {
+                        balance = (closingReceivables[i] != null) ? closingReceivables[i] : balance;
+                        closingReceivables[i] = balance;
+                }
+
+                return new Sparklines(List.of(revenue), List.of(expenses), netProfit, averageTicket,
+                                List.of(closingReceivables));
+        }
+
+        private static int bucketOf(LocalDate day, LocalDate startDay, long days, int buckets) {
+                long offset = ChronoUnit.DAYS.between(startDay, day);
+                return (int) Math.clamp(offset * buckets / days, 0, buckets - 1);
+        }
+
+        private static BigDecimal[] zeros(int size) {
+                BigDecimal[] values = new BigDecimal[size];
+                Arrays.fill(values, BigDecimal.ZERO);
+                return values;
+        }
+
+        private static LocalDate toLocalDate(Object value) {
+                return (value instanceof java.sql.Date date) ? date.toLocalDate() : (LocalDate) value;
+        }
+
         private BigDecimal calculatePercentageChange(BigDecimal current, BigDecimal previous) {
                 if (previous == null || previous.compareTo(BigDecimal.ZERO) == 0) {
                         return (current != null && current.compareTo(BigDecimal.ZERO) > 0) ? new BigDecimal("100.0")
@@ -0,0 +1,464 @@
+package com.flick.business.service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.flick.business.api.dto.response.aministration.DashboardStreamEvent;
+import com.flick.business.api.dto.response.common.ChartDataPoint;
+import com.flick.business.core.entity.Expense;
+import com.flick.business.core.entity.Payment;
+import com.flick.business.core.entity.Sale;
+import com.flick.business.core.entity.SaleItem;
+import com.flick.business.core.transaction.AfterCommit;
+import com.flick.business.repository.DailySalesSummaryRepository;
+import com.flick.business.repository.SaleItemRepository;
+import com.flick.business.service.security.AuthenticatedUserService;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Pushes today's dashboard figures to open SSE streams. Each tenant with an
+ * open stream has an in-memory aggregator, seeded once from the daily rollup
+ * and then moved by the sales, payments and expenses its writers commit, so an
+ * update runs no query. The aggregator is registered before it is seeded, so
+ * a write committed during a load is never missed: it makes the load repeat.
+ *
+ * Every stream holds at most one unsent event. A client that reads slower
+ * than the tenant writes skips to the latest totals, and a send never blocks
+ * the writing request.
+ */
+@Service
+@RequiredArgsConstructor
+public class DashboardStreamService {
+    static final String SNAPSHOT_EVENT = "snapshot";
+    static final String SALE_EVENT = "sale";
+    static final String PAYMENT_EVENT = "payment";
+    static final String EXPENSE_EVENT = "expense";
+    /** Reloads tried while writes keep landing; the last one is kept regardless. */
+    private static final int MAX_RELOAD_ATTEMPTS = 3;
+
+    private final DailySalesSummaryRepository summaryRepository;
+    private final SaleItemRepository saleItemRepository;
+    private final DailySalesSummaryService dailySalesSummaryService;
+    private final AuthenticatedUserService authenticatedUserService;
+    private final PlatformTransactionManager transactionManager;
+
+    /** Open streams allowed per tenant; further ones are refused with 429. */
+    @Value("${app.dashboard.stream.max-connections-per-tenant:5}")
+    private int maxConnectionsPerTenant;
+
+    /** Lifetime of a stream; clients reconnect and get a fresh snapshot. */
+    @Value("${app.dashboard.stream.timeout:PT30M}")
+    private Duration timeout;
+
+    private final Map<Long, TenantStream> streams = new ConcurrentHashMap<>();
+    private ExecutorService sender;
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    void initExecution() {
+        sender = Executors.newVirtualThreadPerTaskExecutor();
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @PreDestroy
+    void shutdownExecution() {
+        streams.values().forEach(TenantStream::completeAll);
+        sender.shutdownNow();
+    }
+
+    /**
+     * Opens a stream of the authenticated tenant's figures for today. The
+     * first event is a snapshot of the current totals.
+     */
+    public SseEmitter subscribe() {
+        Long userId = authenticatedUserService.getAuthenticatedUserId();
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeout.toMillis()));
+
+        TenantStream stream;
+        boolean created;
+        do {
+            created = false;
+            stream = streams.get(userId);
+            if (stream == null) {
+                TenantStream registered = new TenantStream(userId);
+                stream = streams.putIfAbsent(userId, registered);
+                if (stream == null) {
+                    stream = registered;
+                    created = true;
+                }
+            }
+        } while (!stream.add(subscriber));
+
+        TenantStream joined = stream;
+        subscriber.emitter.onCompletion(() -> joined.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> joined.remove(subscriber));
+        subscriber.emitter.onError(ex -> joined.remove(subscriber));
+        if (created) {
+            seed(joined);
+        } else {
+            joined.sendSnapshot(subscriber);
+        }
+        return subscriber.emitter;
+    }
+
+    /** Streams a newly registered sale once its transaction commits. */
+    public void publishSale(Sale sale) {
+        Long userId = sale.getUser().getId();
+        LocalDate day = dailySalesSummaryService.toLocalDate(sale.getSaleDate());
+        BigDecimal revenue = sale.getTotalValue();
+        Map<String, BigDecimal> productRevenue = sale.getItems().stream()
+                .collect(Collectors.groupingBy(item -> item.getProduct().getName(),
+                        Collectors.reducing(BigDecimal.ZERO, SaleItem::getTotalValue, BigDecimal::add)));
+        AfterCommit.run(() -> update(userId, day, SALE_EVENT, revenue, 1,
+                totals -> totals.addSale(revenue, productRevenue)));
+    }
+
+    /** Streams a credit payment once its transaction commits. */
+    public void publishPayment(Payment payment) {
+        Long userId = payment.getCustomer().getUser().getId();
+        LocalDate day = dailySalesSummaryService.toLocalDate(payment.getPaymentDate());
+        BigDecimal amount = payment.getAmountPaid();
+        AfterCommit.run(() -> update(userId, day, PAYMENT_EVENT, BigDecimal.ZERO, 0,
+                totals -> totals.creditPayments = totals.creditPayments.add(amount)));
+    }
+
+    /**
+     * Streams a change of an expense once its transaction commits. The values
+     * are read now, so an expense about to be changed can be reversed.
+     *
+     * @param amount Value added to the expense's day; negative to reverse it.
+     */
+    public void publishExpense(Expense expense, BigDecimal amount) {
+        Long userId = expense.getUser().getId();
+        LocalDate day = dailySalesSummaryService.toLocalDate(expense.getExpenseDate());
+        AfterCommit.run(() -> update(userId, day, EXPENSE_EVENT, BigDecimal.ZERO, 0,
+                totals -> totals.expenses = totals.expenses.add(amount)));
+    }
+
+    /**
+     * Reloads the tenant's totals once a sale deletion commits, since deleted
+     * sales may belong to any day and product. The reload runs off the
+     * request thread.
+     */
+    public void publishSalesDeleted(Long userId) {
+        AfterCommit.run(() -> {
+            if (streams.containsKey(userId)) {
+                sender.execute(() -> resync(userId));
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.dashboard.stream.heartbeat:PT15S}",
+            initialDelayString = "${app.dashboard.stream.heartbeat:PT15S}")
+    public void heartbeat() {
+        LocalDate today = dailySalesSummaryService.toLocalDate(null);
+        streams.values().forEach(stream -> stream.heartbeat(today));
+    }
+
+    private void update(Long userId, LocalDate day, String eventName, BigDecimal revenueDelta, long saleCountDelta,
+            Consumer<TodayTotals> change) {
+        TenantStream stream = streams.get(userId);
+        if (stream != null) {
+            stream.apply(dailySalesSummaryService.toLocalDate(null), day, eventName, revenueDelta, saleCountDelta,
+                    change);
+        }
+    }
+
+    /**
+     * Loads the totals of a stream that is already registered, so every write
+     * committed from now on reaches it. A write that lands during the load may
+     * or may not be in it, so the load is repeated off the request thread.
+     */
+    private void seed(TenantStream stream) {
+        TodayTotals loaded;
+        try {
+            loaded = loadToday(stream.userId);
+        } catch (RuntimeException ex) {
+            stream.fail(ex);
+            throw ex;
+        }
+        if (!stream.seed(loaded)) {
+            sender.execute(() -> resync(stream.userId));
+        }
+    }
+
+    /**
+     * Replaces the tenant's totals with a fresh load. A load that writes raced
+     * with is discarded and tried again, as it may have missed them.
+     */
+    private void resync(Long userId) {
+        for (int attempt = 1; attempt <= MAX_RELOAD_ATTEMPTS; attempt++) {
+            TenantStream stream = streams.get(userId);
+            if (stream == null) {
+                return;
+            }
+            long writes = stream.writes();
+            if (stream.reset(loadToday(userId), writes, attempt == MAX_RELOAD_ATTEMPTS)) {
+                return;
+            }
+        }
+    }
+
+    private TodayTotals loadToday(Long userId) {
+        LocalDate today = dailySalesSummaryService.toLocalDate(null);
+        ZonedDateTime startOfDay = today.atStartOfDay(dailySalesSummaryService.getZone());
+        return readOnlyTransaction.execute(status -> {
+            Object[] sums = summaryRepository.sumBetween(today, today, userId).get(0);
+            TodayTotals totals = new TodayTotals(today);
+            totals.revenue = (BigDecimal) sums[0];
+            totals.saleCount = ((Number) sums[2]).longValue();
+            totals.expenses = (BigDecimal) sums[4];
+            totals.creditPayments = (BigDecimal) sums[5];
+            // products outside the top five start from zero; any of them that overtakes the leader really did
+            saleItemRepository.findTop5SellingProductsByRevenue(startOfDay, ZonedDateTime.now(), userId)
+                    .forEach(row -> totals.productRevenue.put((String) row[0], (BigDecimal) row[1]));
+            return totals;
+        });
+    }
+
+    /** Figures of one tenant for one day, guarded by its TenantStream. */
+    private static final class TodayTotals {
+        private final LocalDate day;
+        private BigDecimal revenue = BigDecimal.ZERO;
+        private long saleCount;
+        private BigDecimal expenses = BigDecimal.ZERO;
+        private BigDecimal creditPayments = BigDecimal.ZERO;
+        private final Map<String, BigDecimal> productRevenue = new HashMap<>();
+
+        private TodayTotals(LocalDate day) {
+            this.day = day;
+        }
+
+        private void addSale(BigDecimal saleRevenue, Map<String, BigDecimal> saleProductRevenue) {
+            revenue = revenue.add(saleRevenue);
+            saleCount++;
+            saleProductRevenue.forEach((product, value) -> productRevenue.merge(product, value, BigDecimal::add));
+        }
+
+        private DashboardStreamEvent toEvent(BigDecimal revenueDelta, long saleCountDelta) {
+            BigDecimal averageTicket = (saleCount > 0)
+                    ? revenue.divide(new BigDecimal(saleCount), 2, RoundingMode.HALF_UP)
+                    : BigDecimal.ZERO;
+            ChartDataPoint topProduct = productRevenue.entrySet().stream()
+                    .max(Map.Entry.comparingByValue())
+                    .map(entry -> new ChartDataPoint(entry.getKey(), entry.getValue()))
+                    .orElse(null);
+            return new DashboardStreamEvent(day, revenueDelta, saleCountDelta, revenue, saleCount, averageTicket,
+                    expenses, creditPayments, topProduct);
+        }
+    }
+
+    /** Event waiting to be sent; a null payload is a heartbeat. */
+    private record Message(String name, long id, DashboardStreamEvent payload) {
+
+        private SseEmitter.SseEventBuilder toSseEvent() {
+            if (payload == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event().name(name).id(Long.toString(id)).data(payload);
+        }
+    }
+
+    /** Aggregator and open streams of one tenant. */
+    private final class TenantStream {
+        private final Long userId;
+        private final List<Subscriber> subscribers = new ArrayList<>();
+        /** Null until the first load completes. */
+        private TodayTotals totals;
+        /** Writes delivered since the stream was registered, to detect loads they raced with. */
+        private long writes;
+        private long sequence;
+        private boolean closed;
+
+        private TenantStream(Long userId) {
+            this.userId = userId;
+        }
+
+        /**
+         * @return false if the stream was closed meanwhile and the caller must
+         *         look up or create the tenant's stream again.
+         */
+        private synchronized boolean add(Subscriber subscriber) {
+            if (closed) {
+                return false;
+            }
+            if (subscribers.size() >= maxConnectionsPerTenant) {
+                throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                        "Too many dashboard streams are open. Close one and try again.");
+            }
+            subscribers.add(subscriber);
+            return true;
+        }
+
+        private synchronized void remove(Subscriber subscriber) {
+            if (subscribers.remove(subscriber) && subscribers.isEmpty()) {
+                closed = true;
+                streams.remove(userId, this);
+            }
+        }
+
+        /** Sends the current totals, unless the first load is running and will broadcast them. */
+        private synchronized void sendSnapshot(Subscriber subscriber) {
+            if (totals != null) {
+                subscriber.offer(new Message(SNAPSHOT_EVENT, ++sequence, totals.toEvent(BigDecimal.ZERO, 0)));
+            }
+        }
+
+        private synchronized void apply(LocalDate today, LocalDate day, String eventName, BigDecimal revenueDelta,
+                long saleCountDelta, Consumer<TodayTotals> change) {
+            writes++;
+            if (totals == null) {
+                // the first load is running; seed() reloads since it may have missed this write
+                return;
+            }
+            rollOver(today);
+            if (!day.equals(totals.day)) {
+                return;
+            }
+            change.accept(totals);
+            broadcast(new Message(eventName, ++sequence, totals.toEvent(revenueDelta, saleCountDelta)));
+        }
+
+        private synchronized long writes() {
+            return writes;
+        }
+
+        /**
+         * Sets the first totals and sends them to every subscriber.
+         *
+         * @return false if writes were delivered during the load, which then
+         *         has to be repeated.
+         */
+        private synchronized boolean seed(TodayTotals loaded) {
+            totals = loaded;
+            broadcast(new Message(SNAPSHOT_EVENT, ++sequence, totals.toEvent(BigDecimal.ZERO, 0)));
+            return writes == 0;
+        }
+
+        /**
+         * Replaces the totals with a load started after {@code writesBefore}
+         * writes, unless more writes were delivered since.
+         *
+         * @param force Replace them even so.
+         * @return whether the totals were replaced.
+         */
+        private synchronized boolean reset(TodayTotals reloaded, long writesBefore, boolean force) {
+            if (writes != writesBefore && !force) {
+                return false;
+            }
+            totals = reloaded;
+            broadcast(new Message(SNAPSHOT_EVENT, ++sequence, totals.toEvent(BigDecimal.ZERO, 0)));
+            return true;
+        }
+
+        /** Closes a stream whose first load failed; its subscribers reconnect. */
+        private synchronized void fail(Throwable cause) {
+            closed = true;
+            streams.remove(userId, this);
+            List.copyOf(subscribers).forEach(subscriber -> subscriber.emitter.completeWithError(cause));
+        }
+
+        private synchronized void heartbeat(LocalDate today) {
+            if (totals == null) {
+                subscribers.forEach(Subscriber::offerHeartbeat);
+            } else if (rollOver(today)) {
+                broadcast(new Message(SNAPSHOT_EVENT, ++sequence, totals.toEvent(BigDecimal.ZERO, 0)));
+            } else {
+                subscribers.forEach(Subscriber::offerHeartbeat);
+            }
+        }
+
+        private synchronized void completeAll() {
+            subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        }
+
+        /** Starts a new day from zero once midnight has passed in the reporting zone. */
+        private boolean rollOver(LocalDate today) {
+            if (!today.isAfter(totals.day)) {
+                return false;
+            }
+            totals = new TodayTotals(today);
+            return true;
+        }
+
+        private void broadcast(Message message) {
+            subscribers.forEach(subscriber -> subscriber.offer(message));
+        }
+    }
+
+    /**
+     * One open stream. Sends run on a virtual thread, one at a time, and a
+     * newer event replaces one that was not sent yet.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicReference<Message> pending = new AtomicReference<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void offer(Message message) {
+            pending.set(message);
+            scheduleSend();
+        }
+
+        /** Keeps an idle connection open without replacing a pending event. */
+        private void offerHeartbeat() {
+            if (pending.compareAndSet(null, new Message(null, 0, null))) {
+                scheduleSend();
+            }
+        }
+
+        private void scheduleSend() {
+            if (sending.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                Message message;
+                while ((message = pending.getAndSet(null)) != null) {
+                    try {
+                        emitter.send(message.toSseEvent());
+                    } catch (IOException | IllegalStateException ex) {
+                        // leave sending set, so a dead stream is never scheduled again
+                        emitter.completeWithError(ex);
+                        return;
+                    }
+                }
+                sending.set(false);
+            } while (pending.get() != null && sending.compareAndSet(false, true));
+        }
+    }
+}
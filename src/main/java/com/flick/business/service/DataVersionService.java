@@ -0,0 +1,80 @@
+package com.flick.business.service;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.flick.business.core.cache.BoundedLruCache;
+import com.flick.business.core.transaction.AfterCommit;
+import com.flick.business.service.security.AuthenticatedUserService;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * In-memory version of each tenant's data, bumped after every committed sale,
+ * expense, payment or customer write. Read endpoints derive their ETag from it
+ * and answer If-None-Match without running any query.
+ *
+ * Versions are drawn from one increasing sequence, so a tenant that is evicted
+ * or written on another instance never gets a version that was already handed
+ * out. ETags also carry an instance id and a time window of
+ * app.data-version.max-age, which bounds how long a write made on another
+ * instance can go unnoticed.
+ */
+@Service
+@RequiredArgsConstructor
+public class DataVersionService {
+    private final AuthenticatedUserService authenticatedUserService;
+
+    @Value("${app.data-version.cache-size:10000}")
+    private int cacheSize;
+
+    @Value("${app.data-version.max-age:PT1M}")
+    private Duration maxAge;
+
+    private final String instanceId = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private BoundedLruCache<Long, Long> versions;
+
+    @PostConstruct
+    void initCache() {
+        versions = new BoundedLruCache<>(cacheSize);
+    }
+
+    /**
+     * Marks the authenticated tenant's data as changed once the current
+     * transaction commits. Reads that run before the commit keep the old
+     * version, so they can never be cached under the new one.
+     */
+    public void bump() {
+        Long userId = authenticatedUserService.getAuthenticatedUserId();
+        AfterCommit.run(() -> versions.put(userId, sequence.incrementAndGet()));
+    }
+
+    /**
+     * Entity tag of a read of the authenticated tenant's data. Take it before
+     * computing the response, so a write committed meanwhile changes it.
+     *
+     * @param resource Request path and query, so different reads get
+     *                 different tags.
+     */
+    public String etag(String resource) {
+        Long userId = authenticatedUserService.getAuthenticatedUserId();
+        long window = System.currentTimeMillis() / Math.max(1, maxAge.toMillis());
+        String scope = Integer.toHexString((userId + "|" + resource).hashCode());
+        return "\"" + instanceId + "-" + currentVersion(userId) + "-" + window + "-" + scope + "\"";
+    }
+
+    private long currentVersion(Long userId) {
+        Long version = versions.get(userId);
+        if (version == null) {
+            version = sequence.incrementAndGet();
+            versions.put(userId, version);
+        }
+        return version;
+    }
+}
@@ -18,6 +18,7 @@ import com.flick.business.repository.spec.ExpenseSpecification;
 import com.flick.business.service.security.AuthenticatedUserService;
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -28,9 +29,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.ZonedDateTime;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.StringJoiner;
+import java.util.TreeMap;
 
 @Service
 @RequiredArgsConstructor
@@ -40,8 +42,16 @@ public class ExpenseService {
     private final ExpenseMapper expenseMapper;
     private final ProductRepository productRepository;
     private final ProductService productService;
+    private final DailySalesSummaryService dailySalesSummaryService;
+    private final DataVersionService dataVersionService;
+    private final DashboardStreamService dashboardStreamService;
+    private final ReportCacheService reportCacheService;
     private final AuthenticatedUserService authenticatedUserService;
 
+    /** Whether name searches also match by pg_trgm similarity; needs db/scripts/006. */
+    @Value("${app.search.trigram:false}")
+    private boolean trigramSearch;
+
     @Transactional
     public ExpenseResponse create(ExpenseRequest request) {
         User currentUser = authenticatedUserService.getAuthenticatedUser();
@@ -60,6 +70,10 @@ public class ExpenseService {
         }
 
         Expense savedExpense = expenseRepository.save(expense);
+        dailySalesSummaryService.recordExpense(savedExpense);
+        reportCacheService.evictExpense(savedExpense);
+        dataVersionService.bump();
+        dashboardStreamService.publishExpense(savedExpense, savedExpense.getValue());
         return ExpenseResponse.fromEntity(savedExpense);
     }
 
@@ -68,16 +82,14 @@ public class ExpenseService {
             throw new BusinessException("Restocking expenses must contain at least one item.");
         }
 
-        List<Product> productsToUpdate = new ArrayList<>();
+        Map<Long, BigDecimal> restockedQuantities = new TreeMap<>();
 
         for (RestockItemRequest itemRequest : request.restockItems()) {
             Product product = productService.findEntityById(itemRequest.productId());
             BigDecimal quantity = itemRequest.quantity();
             BigDecimal unitCostPrice = itemRequest.unitCostPrice();
 
-            // update stock
-            product.setStockQuantity(product.getStockQuantity().add(quantity));
-            productsToUpdate.add(product);
+            restockedQuantities.merge(product.getId(), quantity, BigDecimal::add);
 
             // create and associates RestockItem
             RestockItem restockItem = new RestockItem();
@@ -87,7 +99,10 @@ public class ExpenseService {
             expense.AddRestockItem(restockItem);
         }
 
-        productRepository.saveAll(productsToUpdate);
+        // update stock in place, in product order like sales, so concurrent sales are neither lost nor deadlocked
+        Long userId = expense.getUser().getId();
+        restockedQuantities.forEach((productId, quantity) ->
+                productRepository.incrementStock(productId, userId, quantity));
         applyAutomaticRestockingMetadata(expense);
     }
 
@@ -95,9 +110,11 @@ public class ExpenseService {
     public Product restockProduct(Long productId, BigDecimal quantity, BigDecimal newCostPrice) {
         Product product = productService.findEntityById(productId);
 
-        product.setStockQuantity(product.getStockQuantity().add(quantity));
         product.setCostPrice(newCostPrice);
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        productRepository.incrementStock(productId, authenticatedUserService.getAuthenticatedUserId(), quantity);
+        savedProduct.setStockQuantity(productRepository.findStockQuantityById(productId));
+        return savedProduct;
     }
 
     private void processSimpleExpense(Expense expense, ExpenseRequest request) {
@@ -116,17 +133,29 @@ public class ExpenseService {
         Expense expense = expenseMapper.toEntity(request);
         expense.setUser(currentUser);
         Expense savedExpense = expenseRepository.save(expense);
+        dailySalesSummaryService.recordExpense(savedExpense);
+        reportCacheService.evictExpense(savedExpense);
+        dataVersionService.bump();
+        dashboardStreamService.publishExpense(savedExpense, savedExpense.getValue());
         return ExpenseResponse.fromEntity(savedExpense);
     }
 
     @Transactional
     public ExpenseResponse update(Long id, ExpenseRequest request) {
-        Expense existingExpense = findEntityById(id);
+        Expense existingExpense = lockEntityById(id);
+        // the day, method or value may change, so the old values leave the rollup first
+        dailySalesSummaryService.reverseExpense(existingExpense);
+        dashboardStreamService.publishExpense(existingExpense, existingExpense.getValue().negate());
+        reportCacheService.evictExpense(existingExpense);
         expenseMapper.updateEntityFromRequest(request, existingExpense);
         if (existingExpense.getExpenseType() == ExpenseType.RESTOCKING) {
             applyAutomaticRestockingMetadata(existingExpense);
         }
         Expense updatedExpense = expenseRepository.save(existingExpense);
+        dailySalesSummaryService.recordExpense(updatedExpense);
+        reportCacheService.evictExpense(updatedExpense);
+        dataVersionService.bump();
+        dashboardStreamService.publishExpense(updatedExpense, updatedExpense.getValue());
         return ExpenseResponse.fromEntity(updatedExpense);
     }
 
@@ -134,7 +163,8 @@ public class ExpenseService {
     public PageResponse<ExpenseResponse> listAll(String name, String expenseTypeStr, ZonedDateTime startDate,
             ZonedDateTime endDate, int page, int size) {
         ExpenseType expenseType = parseExpenseType(expenseTypeStr);
-        Specification<Expense> spec = ExpenseSpecification.withFilters(name, startDate, endDate, expenseType, authenticatedUserService.getAuthenticatedUserId());
+        Specification<Expense> spec = ExpenseSpecification.withFilters(name, startDate, endDate, expenseType,
+                authenticatedUserService.getAuthenticatedUserId(), trigramSearch);
         Sort sort = Sort.by(Sort.Direction.DESC, "expenseDate");
         Pageable pageable = PageRequest.of(page, size, sort);
 
@@ -168,8 +198,12 @@ public class ExpenseService {
 
     @Transactional
     public void deleteById(Long id) {
-        Expense expense = findEntityById(id);
+        Expense expense = lockEntityById(id);
+        dailySalesSummaryService.reverseExpense(expense);
+        reportCacheService.evictExpense(expense);
         expenseRepository.delete(expense);
+        dataVersionService.bump();
+        dashboardStreamService.publishExpense(expense, expense.getValue().negate());
     }
 
     private Expense findEntityById(Long id) {
@@ -178,6 +212,12 @@ public class ExpenseService {
                 .orElseThrow(() -> new ResourceNotFoundException("Expense not found with ID: " + id));
     }
 
+    private Expense lockEntityById(Long id) {
+        Long userId = authenticatedUserService.getAuthenticatedUserId();
+        return expenseRepository.lockByIdAndUserId(id, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Expense not found with ID: " + id));
+    }
+
     private ExpenseType parseExpenseType(String typeStr) {
         if (typeStr == null || typeStr.isBlank()) {
             return null;
@@ -1,5 +1,10 @@
 package com.flick.business.service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -7,9 +12,13 @@ import com.flick.business.service.security.AuthenticatedUserService;
 import com.flick.business.api.dto.request.settings.GeneralSettingsRequest;
 import com.flick.business.api.dto.response.GeneralSettingsResponse;
 import com.flick.business.api.mapper.GeneralSettingsMapper;
+import com.flick.business.core.cache.BoundedLruCache;
 import com.flick.business.core.entity.GeneralSettings;
 import com.flick.business.core.enums.settings.StockControlType;
+import com.flick.business.core.transaction.AfterCommit;
 import com.flick.business.repository.GeneralSettingsRepository;
+
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -19,13 +28,32 @@ public class GeneralSettingsService {
     private final GeneralSettingsRepository settingsRepository;
     private final GeneralSettingsMapper settingsMapper;
 
+    @Value("${app.settings.cache-size:10000}")
+    private int cacheSize;
+
+    @Value("${app.settings.cache-ttl:PT5M}")
+    private Duration cacheTtl;
+
+    private BoundedLruCache<Long, CachedStockControl> stockControlCache;
+
+    /**
+     * Bumped after every committed update. A load that started before an update
+     * committed may have read the old row, so it is not cached.
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @PostConstruct
+    void initCache() {
+        stockControlCache = new BoundedLruCache<>(cacheSize);
+    }
+
     @Transactional
     public GeneralSettingsResponse getSettings() {
         return GeneralSettingsResponse.fromEntity(findEntity());
     }
 
     /**
-     * Search for the settings entity
+     * Search for the settings entity, creating the default row on first access
      *
      * @return GeneralSettings entity
      */
@@ -34,13 +62,33 @@ public class GeneralSettingsService {
         Long userId = authenticatedUserService.getAuthenticatedUserId();
         return settingsRepository.findByUserId(userId)
                 .orElseGet(() -> {
-                    GeneralSettings newSettings = new GeneralSettings();
-                    newSettings.setUser(authenticatedUserService.getAuthenticatedUser());
-                    newSettings.setStockControlType(StockControlType.PER_ITEM);
-                    return settingsRepository.save(newSettings);
+                    settingsRepository.insertDefaultIfAbsent(userId, StockControlType.PER_ITEM.name());
+                    return settingsRepository.findByUserId(userId).orElseThrow();
                 });
     }
 
+    /**
+     * Stock control strategy of the authenticated user, served from an
+     * in-memory cache so the checkout path does not query the settings table
+     *
+     * @return StockControlType of the current tenant
+     */
+    @Transactional
+    public StockControlType getStockControlType() {
+        Long userId = authenticatedUserService.getAuthenticatedUserId();
+        CachedStockControl cached = stockControlCache.get(userId);
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            return cached.stockControlType();
+        }
+
+        long invalidationsBeforeLoad = invalidations.get();
+        StockControlType stockControlType = findEntity().getStockControlType();
+        if (invalidations.get() == invalidationsBeforeLoad) {
+            stockControlCache.put(userId, new CachedStockControl(stockControlType, Instant.now().plus(cacheTtl)));
+        }
+        return stockControlType;
+    }
+
     /**
      * Save or update settings
      *
@@ -52,6 +100,15 @@ public class GeneralSettingsService {
         GeneralSettings existingSettings = findEntity();
         settingsMapper.updateEntityFromRequest(request, existingSettings);
         GeneralSettings updatedSettings = settingsRepository.save(existingSettings);
+
+        Long userId = authenticatedUserService.getAuthenticatedUserId();
+        AfterCommit.run(() -> {
+            invalidations.incrementAndGet();
+            stockControlCache.remove(userId);
+        });
         return GeneralSettingsResponse.fromEntity(updatedSettings);
     }
+
+    private record CachedStockControl(StockControlType stockControlType, Instant expiresAt) {
+    }
 }
@@ -0,0 +1,170 @@
+package com.flick.business.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flick.business.core.cache.BoundedLruCache;
+import com.flick.business.core.entity.IdempotencyRecord;
+import com.flick.business.core.entity.security.User;
+import com.flick.business.core.transaction.AfterCommit;
+import com.flick.business.exception.BusinessException;
+import com.flick.business.repository.IdempotencyRecordRepository;
+import com.flick.business.service.security.AuthenticatedUserService;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Makes write endpoints safe to retry. The first request with a given
+ * Idempotency-Key runs normally and its response is stored per tenant; any
+ * retry with the same key gets the stored response back without running the
+ * operation again.
+ */
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final AuthenticatedUserService authenticatedUserService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.idempotency.ttl:PT24H}")
+    private Duration ttl;
+
+    @Value("${app.idempotency.cache-size:10000}")
+    private int cacheSize;
+
+    private BoundedLruCache<String, StoredResponse> recentResponses;
+
+    @PostConstruct
+    void initCache() {
+        recentResponses = new BoundedLruCache<>(cacheSize);
+    }
+
+    /**
+     * Runs the action once per tenant, scope and key. The key row is inserted
+     * before the action runs, so a concurrent request with the same key waits
+     * on the unique index and is rejected instead of repeating the operation.
+     *
+     * @param scope          Name of the operation the key belongs to.
+     * @param idempotencyKey Value of the Idempotency-Key header, or null.
+     * @param request        Request body, used to detect a key reused with other
+     *                       data.
+     * @param responseType   Type of the stored response.
+     * @param action         The operation to run on the first request.
+     * @return The response of the first request with this key.
+     */
+    @Transactional
+    public <T> T execute(String scope, String idempotencyKey, Object request, Class<T> responseType,
+            Supplier<T> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException("Idempotency-Key must have between 1 and 100 characters.");
+        }
+
+        User user = authenticatedUserService.getAuthenticatedUser();
+        String requestHash = hash(request);
+        String cacheKey = user.getId() + ":" + scope + ":" + idempotencyKey;
+        ZonedDateTime now = ZonedDateTime.now();
+
+        StoredResponse cached = recentResponses.get(cacheKey);
+        if (cached != null && cached.expiresAt().isAfter(now)) {
+            return replay(cached, requestHash, responseType);
+        }
+
+        Optional<IdempotencyRecord> existing = idempotencyRecordRepository
+                .findByUserIdAndScopeAndIdempotencyKey(user.getId(), scope, idempotencyKey);
+        if (existing.isPresent()) {
+            IdempotencyRecord record = existing.get();
+            if (record.getExpiresAt().isAfter(now)) {
+                StoredResponse stored = new StoredResponse(record.getRequestHash(), record.getResponseBody(),
+                        record.getExpiresAt());
+                recentResponses.put(cacheKey, stored);
+                return replay(stored, requestHash, responseType);
+            }
+            idempotencyRecordRepository.delete(record);
+            idempotencyRecordRepository.flush();
+        }
+
+        IdempotencyRecord record = IdempotencyRecord.builder()
+                .user(user)
+                .scope(scope)
+                .idempotencyKey(idempotencyKey)
+                .requestHash(requestHash)
+                .expiresAt(now.plus(ttl))
+                .build();
+        try {
+            idempotencyRecordRepository.saveAndFlush(record);
+        } catch (DataIntegrityViolationException ex) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "A request with this Idempotency-Key is already being processed.");
+        }
+
+        T response = action.get();
+        record.setResponseBody(serialize(response));
+
+        StoredResponse stored = new StoredResponse(requestHash, record.getResponseBody(), record.getExpiresAt());
+        // only committed responses are cached; a rolled back request must be executable again with the same key
+        AfterCommit.run(() -> recentResponses.put(cacheKey, stored));
+        return response;
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval:PT1H}",
+            initialDelayString = "${app.idempotency.purge-interval:PT1H}")
+    @Transactional
+    public void purgeExpired() {
+        idempotencyRecordRepository.deleteExpired(ZonedDateTime.now());
+    }
+
+    private <T> T replay(StoredResponse stored, String requestHash, Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new BusinessException("Idempotency-Key was already used with a different request.");
+        }
+        try {
+            return objectMapper.readValue(stored.responseBody(), responseType);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored idempotent response could not be read", ex);
+        }
+    }
+
+    private String serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Idempotent response could not be stored", ex);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = serialize(request).getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(digest.digest(bytes));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private record StoredResponse(String requestHash, String responseBody, ZonedDateTime expiresAt) {
+    }
+}
@@ -1,6 +1,7 @@
 package com.flick.business.service;
 
 import java.math.BigDecimal;
+import java.time.ZonedDateTime;
 import java.util.HashSet;
 import java.util.List;
 
@@ -26,6 +27,10 @@ public class PaymentService {
     private final PaymentRepository paymentRepository;
     private final SaleRepository saleRepository;
     private final CustomerService customerService;
+    private final DailySalesSummaryService dailySalesSummaryService;
+    private final ReceivablesSnapshotService receivablesSnapshotService;
+    private final DataVersionService dataVersionService;
+    private final DashboardStreamService dashboardStreamService;
     private final AuthenticatedUserService authenticatedUserService;
 
     @Transactional
@@ -54,17 +59,25 @@ public class PaymentService {
                 .customer(customer)
                 .amountPaid(request.amountPaid())
                 .paymentMethod(request.paymentMethod())
+                .paymentDate(ZonedDateTime.now())
                 .settledSales(new HashSet<>(salesToSettle))
                 .build();
-        paymentRepository.save(newPayment);
+        Payment savedPayment = paymentRepository.save(newPayment);
 
-        // 5. update sale status to PAID
-        for (Sale sale : salesToSettle) {
-            sale.setPaymentStatus(PaymentStatus.PAID);
+        // 5. update sale status to PAID, unless a concurrent payment settled them first.
+        // Sales are locked before the customer, in the same order as sale deletion.
+        if (saleRepository.markPendingAsPaid(request.saleIds(), userId) != salesToSettle.size()) {
+            throw new BusinessException("One or more sales are no longer pending payment.");
         }
 
-        // 5. subtract value from customer credit
-        customer.setDebtBalance(customer.getDebtBalance().subtract(request.amountPaid()));
+        // 6. subtract value from customer credit
+        customerService.reduceDebt(customer, request.amountPaid());
+
+        // 7. add the amount received to the daily rollup and receivables
+        dailySalesSummaryService.recordCreditPayment(savedPayment);
+        receivablesSnapshotService.recordPayment(savedPayment);
+        dataVersionService.bump();
+        dashboardStreamService.publishPayment(savedPayment);
     }
 
     private void validateSales(List<Sale> sales, Long customerId, BigDecimal amountPaid) {
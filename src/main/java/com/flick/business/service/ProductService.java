@@ -2,12 +2,14 @@ package com.flick.business.service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
 import java.util.stream.Collectors;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -24,9 +26,9 @@ import com.flick.business.core.entity.Category;
 import com.flick.business.core.entity.Product;
 import com.flick.business.core.entity.Provider;
 import com.flick.business.core.entity.security.User;
+import com.flick.business.core.enums.ReportType;
 import com.flick.business.exception.ResourceNotFoundException;
 import com.flick.business.repository.ProductRepository;
-import com.flick.business.repository.SaleItemRepository;
 import com.flick.business.repository.spec.ProductSpecification;
 import com.flick.business.service.security.AuthenticatedUserService;
 
@@ -41,18 +43,20 @@ public class ProductService {
     private final ProductMapper productMapper;
     private final CategoryService categoryService;
     private final ProviderService providerService;
-    private final SaleItemRepository saleItemRepository;
+    private final ReportCacheService reportCacheService;
+    private final DataVersionService dataVersionService;
     private final AuthenticatedUserService authenticatedUserService;
 
+    /** Whether name searches also match by pg_trgm similarity; needs db/scripts/006. */
+    @Value("${app.search.trigram:false}")
+    private boolean trigramSearch;
+
     @Transactional(readOnly = true)
     public List<ProductResponse> getSuggestions() {
         Long userId = authenticatedUserService.getAuthenticatedUserId();
-        List<Long> topIds = saleItemRepository.findTop3MostSoldProductIds(userId);
-
-        List<Product> products;
-        if (!topIds.isEmpty()) {
-            products = productRepository.findAllById(topIds);
-        } else {
+        List<Product> products = productRepository
+                .findTop3ByUserIdAndUnitsSoldGreaterThanOrderByUnitsSoldDescIdAsc(userId, BigDecimal.ZERO);
+        if (products.isEmpty()) {
             products = productRepository.findTop3ByActiveTrueAndUserIdOrderByNameAsc(userId);
         }
 
@@ -74,6 +78,9 @@ public class ProductService {
         Product product = productMapper.toEntity(request, category, provider);
         product.setUser(currentUser);
         Product savedProduct = productRepository.save(product);
+        // the ABC analysis lists every active product, sold or not
+        reportCacheService.evictType(currentUser.getId(), ReportType.ABC_ANALYSIS);
+        dataVersionService.bump();
         return ProductResponse.fromEntity(savedProduct);
     }
 
@@ -84,8 +91,16 @@ public class ProductService {
         Category category = categoryService.findEntityById(request.categoryId());
         Provider provider = (request.providerId() != null) ? providerService.findById(request.providerId()) : null;
 
+        BigDecimal loadedStock = existingProduct.getStockQuantity();
         productMapper.updateEntityFromRequest(request, existingProduct, category, provider);
         Product updateProduct = productRepository.save(existingProduct);
+        // the form sends the stock it loaded; only a changed count replaces it, so sales made meanwhile are kept
+        if (request.stockQuantity().compareTo(loadedStock) != 0) {
+            productRepository.overwriteStock(id, authenticatedUserService.getAuthenticatedUserId(),
+                    request.stockQuantity());
+        }
+        reportCacheService.evictType(authenticatedUserService.getAuthenticatedUserId(), ReportType.ABC_ANALYSIS);
+        dataVersionService.bump();
         return ProductResponse.fromEntity(updateProduct);
     }
 
@@ -94,23 +109,10 @@ public class ProductService {
             int size) {
         Long userId = authenticatedUserService.getAuthenticatedUserId();
 
-        if ("mostSold".equalsIgnoreCase(orderBy) || "leastSold".equalsIgnoreCase(orderBy)) {
-            Pageable pageable = PageRequest.of(page, size);
-            Page<Product> productPage;
-
-            if ("mostSold".equalsIgnoreCase(orderBy)) {
-                productPage = productRepository.findAllByMostSold(name, categoryId, userId, pageable);
-            } else {
-                productPage = productRepository.findAllByLeastSold(name, categoryId, userId, pageable);
-            }
-
-            return new PageResponse<>(productPage.map(ProductResponse::fromEntity));
-        }
-
-        Sort sort = createSort(orderBy);
+        Sort sort = createSort(orderBy, name != null && !name.isBlank());
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Specification<Product> spec = ProductSpecification.withFilters(name, categoryId, userId);
+        Specification<Product> spec = ProductSpecification.withFilters(name, categoryId, userId, trigramSearch);
 
         Page<Product> productPage = productRepository.findAll(spec, pageable);
 
@@ -154,6 +156,20 @@ public class ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with ID: " + id));
     }
 
+    /**
+     * Finds every Product entity among the given IDs in a single query. IDs that
+     * do not belong to the authenticated user are simply absent from the result,
+     * so callers can report all of them at once.
+     *
+     * @param ids The IDs of the products to find.
+     * @return The found Product entities, in no particular order.
+     */
+    @Transactional(readOnly = true)
+    public List<Product> findEntitiesByIds(Collection<Long> ids) {
+        Long userId = authenticatedUserService.getAuthenticatedUserId();
+        return productRepository.findByIdInAndUserId(ids, userId);
+    }
+
     @Transactional(readOnly = true)
     public ProductResponse findById(Long id) {
         Product product = findEntityById(id);
@@ -208,26 +224,35 @@ public class ProductService {
         Product product = findEntityById(id);
         product.setActive(!product.isActive());
         productRepository.save(product);
+        reportCacheService.evictType(authenticatedUserService.getAuthenticatedUserId(), ReportType.ABC_ANALYSIS);
+        dataVersionService.bump();
     }
 
     @Transactional
     public void deletePermanently(Long id) {
         Product product = findEntityById(id);
         productRepository.delete(product);
+        reportCacheService.evictType(authenticatedUserService.getAuthenticatedUserId(), ReportType.ABC_ANALYSIS);
+        dataVersionService.bump();
     }
 
-    private Sort createSort(String orderBy) {
+    /** Searches default to relevance, which the specification orders by when the sort is empty. */
+    private Sort createSort(String orderBy, boolean searching) {
         if (orderBy == null || orderBy.isBlank()) {
-            return Sort.by(Sort.Direction.ASC, "name");
+            return searching ? Sort.unsorted() : Sort.by(Sort.Direction.ASC, "name");
         }
         String normalized = orderBy.trim().toLowerCase(Locale.ROOT);
         return switch (normalized) {
+            case "relevance" -> searching ? Sort.unsorted() : Sort.by(Sort.Direction.ASC, "name");
             case "name_asc", "nameasc" -> Sort.by(Sort.Direction.ASC, "name");
             case "name_desc" -> Sort.by(Sort.Direction.DESC, "name");
             case "price_asc" -> Sort.by(Sort.Direction.ASC, "salePrice");
             case "price_desc" -> Sort.by(Sort.Direction.DESC, "salePrice");
             case "date_asc", "dateasc" -> Sort.by(Sort.Direction.ASC, "createdAt");
             case "date_desc", "datedesc" -> Sort.by(Sort.Direction.DESC, "createdAt");
+            // units sold is kept on the product, so these are plain sorts on (user_id, units_sold)
+            case "mostsold", "most_sold" -> Sort.by(Sort.Direction.DESC, "unitsSold").and(Sort.by("id"));
+            case "leastsold", "least_sold" -> Sort.by(Sort.Direction.ASC, "unitsSold").and(Sort.by("id"));
             default -> Sort.by(Sort.Direction.ASC, "name"); // name_asc
         };
     }
@@ -0,0 +1,69 @@
+package com.flick.business.service;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.flick.business.core.entity.Payment;
+import com.flick.business.core.entity.Sale;
+import com.flick.business.core.enums.PaymentMethod;
+import com.flick.business.repository.ReceivablesSnapshotRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Keeps the daily receivables snapshots in step with customer debt. Changes
+ * are booked on the day they happen, in the caller's transaction, so a past
+ * day keeps the balance it really had.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReceivablesSnapshotService {
+    private final ReceivablesSnapshotRepository snapshotRepository;
+    private final DailySalesSummaryService dailySalesSummaryService;
+
+    /** Adds a newly registered sale to today's balance if it was sold on credit. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSale(Sale sale) {
+        if (sale.getCustomer() == null || sale.getPaymentMethod() != PaymentMethod.ON_CREDIT) {
+            return;
+        }
+        snapshotRepository.addChange(sale.getUser().getId(), dailySalesSummaryService.toLocalDate(null),
+                sale.getTotalValue());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordPayment(Payment payment) {
+        snapshotRepository.addChange(payment.getCustomer().getUser().getId(),
+                dailySalesSummaryService.toLocalDate(null), payment.getAmountPaid().negate());
+    }
+
+    /**
+     * Takes the debt of sales that are about to be deleted off today's
+     * balance. Only sales still pending on credit are owed.
+     *
+     * @param saleIds IDs of sales that still exist.
+     * @param userId  Owner of the sales.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reverseSales(Collection<Long> saleIds, Long userId) {
+        snapshotRepository.subtractPendingCreditSales(saleIds, userId, dailySalesSummaryService.toLocalDate(null));
+    }
+
+    /**
+     * Recomputes the snapshots from sales and payments. Writers wait while it
+     * runs, so it is meant for backfills and repairs.
+     *
+     * @param userId Tenant to rebuild, or null for all tenants.
+     * @return Number of snapshot rows written.
+     */
+    @Transactional
+    public int rebuild(Long userId) {
+        snapshotRepository.lockForRebuild();
+        snapshotRepository.deleteForRebuild(userId);
+        return snapshotRepository.insertFromSources(userId, dailySalesSummaryService.getZone().getId());
+    }
+}
@@ -0,0 +1,145 @@
+package com.flick.business.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.flick.business.core.cache.BoundedLruCache;
+import com.flick.business.core.entity.Expense;
+import com.flick.business.core.enums.ReportType;
+import com.flick.business.core.transaction.AfterCommit;
+import com.flick.business.repository.SaleRepository;
+import com.flick.business.service.security.AuthenticatedUserService;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Results of reports over closed ranges, that is ranges ending before today
+ * in the reporting zone. Such a result only changes when a write touches a
+ * day inside its range, so entries never expire on time: writers evict the
+ * entries whose range holds the days they changed, once they commit. Ranges
+ * that include today are never cached.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReportCacheService {
+    private final SaleRepository saleRepository;
+    private final DailySalesSummaryService dailySalesSummaryService;
+    private final AuthenticatedUserService authenticatedUserService;
+
+    @Value("${app.reports.cache-size:5000}")
+    private int cacheSize;
+
+    private BoundedLruCache<CacheKey, Object> results;
+
+    /**
+     * Bumped by every eviction. A load that overlapped an eviction may have
+     * read the data from before the write, so it is not cached.
+     */
+    private long evictions;
+
+    @PostConstruct
+    void initCache() {
+        results = new BoundedLruCache<>(cacheSize);
+    }
+
+    /** Cached result of a report that has no inputs besides its range. */
+    public <T> T get(ReportType type, ZonedDateTime startDate, ZonedDateTime endDate, Supplier<T> loader) {
+        return get(type, startDate, endDate, null, loader);
+    }
+
+    /**
+     * Returns the cached result of a report of the authenticated tenant, or
+     * loads it and caches it when the range is closed.
+     *
+     * @param parameters Other inputs of the report, such as a page, compared
+     *                   with equals; null if there are none.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(ReportType type, ZonedDateTime startDate, ZonedDateTime endDate, Object parameters,
+            Supplier<T> loader) {
+        LocalDate endDay = dailySalesSummaryService.toLocalDate(endDate);
+        if (!endDay.isBefore(dailySalesSummaryService.toLocalDate(null))) {
+            return loader.get();
+        }
+
+        CacheKey key = new CacheKey(authenticatedUserService.getAuthenticatedUserId(), type,
+                startDate.toInstant(), endDate.toInstant(), dailySalesSummaryService.toLocalDate(startDate), endDay,
+                parameters);
+        Object cached = results.get(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+
+        long evictionsBeforeLoad = currentEvictions();
+        T result = loader.get();
+        synchronized (this) {
+            if (evictions == evictionsBeforeLoad) {
+                results.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    /** Evicts the tenant's results that include the day of a changed record. */
+    public void evictDay(Long userId, ZonedDateTime date) {
+        LocalDate day = dailySalesSummaryService.toLocalDate(date);
+        evictDays(userId, day, day);
+    }
+
+    /** Evicts the results that include the day of an expense, as it is now. */
+    public void evictExpense(Expense expense) {
+        evictDay(expense.getUser().getId(), expense.getExpenseDate());
+    }
+
+    /**
+     * Evicts the results that include the days of sales about to be deleted.
+     * Must run before the sales are deleted.
+     */
+    public void evictSales(Collection<Long> saleIds, Long userId) {
+        List<Object[]> range = saleRepository.findSaleDateRange(saleIds, userId);
+        if (range.isEmpty() || range.get(0)[0] == null) {
+            return;
+        }
+        evictDays(userId, dailySalesSummaryService.toLocalDate((ZonedDateTime) range.get(0)[0]),
+                dailySalesSummaryService.toLocalDate((ZonedDateTime) range.get(0)[1]));
+    }
+
+    /**
+     * Evicts every result of one report type of the tenant, for writes that
+     * are not tied to a day, like a product joining or leaving the catalogue.
+     */
+    public void evictType(Long userId, ReportType type) {
+        AfterCommit.run(() -> evictIf(key -> key.userId().equals(userId) && key.type() == type));
+    }
+
+    private void evictDays(Long userId, LocalDate firstDay, LocalDate lastDay) {
+        // cached ranges end before today, so writes of today and later cannot touch them
+        if (!firstDay.isBefore(dailySalesSummaryService.toLocalDate(null))) {
+            return;
+        }
+        AfterCommit.run(() -> evictIf(key -> key.userId().equals(userId)
+                && !key.startDay().isAfter(lastDay) && !key.endDay().isBefore(firstDay)));
+    }
+
+    private synchronized void evictIf(Predicate<CacheKey> predicate) {
+        evictions++;
+        results.removeIf((key, result) -> predicate.test(key));
+    }
+
+    private synchronized long currentEvictions() {
+        return evictions;
+    }
+
+    private record CacheKey(Long userId, ReportType type, Instant startDate, Instant endDate, LocalDate startDay,
+            LocalDate endDay, Object parameters) {
+    }
+}
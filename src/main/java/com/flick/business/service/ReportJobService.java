@@ -0,0 +1,200 @@
+package com.flick.business.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.flick.business.api.dto.request.reports.ReportJobRequest;
+import com.flick.business.api.dto.response.reports.ReportJobResponse;
+import com.flick.business.core.cache.BoundedLruCache;
+import com.flick.business.core.enums.ReportJobStatus;
+import com.flick.business.core.enums.ReportType;
+import com.flick.business.exception.BusinessException;
+import com.flick.business.exception.ResourceNotFoundException;
+import com.flick.business.service.security.AuthenticatedUserService;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs heavy reports off the request threads. Jobs run on a small fixed pool
+ * with a bounded queue, so reports hold at most that many database
+ * connections; when the queue is full new jobs are refused with 429. A
+ * request identical to a job of the same tenant that has not finished yet
+ * joins that job. Finished jobs are kept in memory for
+ * app.reports.jobs.result-ttl; unfinished ones are held apart until they
+ * finish, so they are never dropped to make room.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReportJobService {
+    static final String GENERIC_FAILURE = "The report could not be generated.";
+
+    private final ReportService reportService;
+    private final AuthenticatedUserService authenticatedUserService;
+
+    @Value("${app.reports.jobs.threads:2}")
+    private int threads;
+
+    @Value("${app.reports.jobs.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${app.reports.jobs.result-ttl:PT10M}")
+    private Duration resultTtl;
+
+    @Value("${app.reports.jobs.max-stored:1000}")
+    private int maxStored;
+
+    private ThreadPoolExecutor executor;
+    /** Finished jobs, the least recently read dropped first. */
+    private BoundedLruCache<String, ReportJob> jobs;
+    /** Queued and running jobs, at most threads + queue-capacity of them. */
+    private final Map<String, ReportJob> unfinishedById = new ConcurrentHashMap<>();
+    private final Map<JobKey, ReportJob> unfinishedJobs = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void initExecution() {
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), Thread.ofPlatform().name("report-job-", 0).factory());
+        jobs = new BoundedLruCache<>(maxStored);
+    }
+
+    @PreDestroy
+    void shutdownExecution() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues a report for the authenticated tenant, or returns the unfinished
+     * job that already computes the same one.
+     */
+    public ReportJobResponse submit(ReportJobRequest request) {
+        Long userId = authenticatedUserService.getAuthenticatedUserId();
+        // a bad filter is refused now rather than reported as a failed job
+        ReportService.parseAbcClass(request.abcClass());
+        JobKey key = new JobKey(userId, request.type(), request.startDate().toInstant(),
+                request.endDate().toInstant(), request.abcClass(), request.page(), request.size());
+        // a job that finishes at once waits for this mapping before removing it, as both lock the same key
+        return unfinishedJobs.computeIfAbsent(key, k -> start(k, request)).toResponse();
+    }
+
+    public ReportJobResponse findById(String id) {
+        Long userId = authenticatedUserService.getAuthenticatedUserId();
+        // a finishing job is stored among the finished ones before it leaves the unfinished ones
+        ReportJob job = unfinishedById.get(id);
+        if (job == null) {
+            job = jobs.get(id);
+        }
+        if (job == null || !job.key.userId().equals(userId) || job.isExpired(Instant.now())) {
+            throw new ResourceNotFoundException("Report job not found with ID: " + id);
+        }
+        return job.toResponse();
+    }
+
+    @Scheduled(fixedDelayString = "${app.reports.jobs.purge-interval:PT5M}",
+            initialDelayString = "${app.reports.jobs.purge-interval:PT5M}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        jobs.removeIf((id, job) -> job.isExpired(now));
+    }
+
+    private ReportJob start(JobKey key, ReportJobRequest request) {
+        ReportJob job = new ReportJob(UUID.randomUUID().toString(), key, request);
+        unfinishedById.put(job.id, job);
+        // the job reads the tenant from the security context, like a request would
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(SecurityContextHolder.getContext().getAuthentication());
+        Runnable task = new DelegatingSecurityContextRunnable(() -> run(job), context);
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ex) {
+            unfinishedById.remove(job.id);
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Too many reports are being generated. Try again later.");
+        }
+        return job;
+    }
+
+    private void run(ReportJob job) {
+        job.status = ReportJobStatus.RUNNING;
+        try {
+            ReportJobRequest request = job.request;
+            job.result = switch (request.type()) {
+                case FINANCIAL_SUMMARY -> reportService.getFinancialSummary(request.startDate(), request.endDate());
+                case ABC_ANALYSIS -> reportService.getAbcAnalisys(request.startDate(), request.endDate(),
+                        request.abcClass(), request.page() != null ? request.page() : 0,
+                        request.size() != null ? request.size() : ReportService.DEFAULT_ABC_PAGE_SIZE);
+            };
+            job.finish(ReportJobStatus.COMPLETED, resultTtl);
+        } catch (RuntimeException ex) {
+            log.error("Report job {} ({}) of user {} failed", job.id, job.request.type(), job.key.userId(), ex);
+            // business messages are meant for clients; anything else stays in the log
+            job.error = (ex instanceof BusinessException) ? ex.getMessage() : GENERIC_FAILURE;
+            job.finish(ReportJobStatus.FAILED, resultTtl);
+        } finally {
+            jobs.put(job.id, job);
+            unfinishedById.remove(job.id);
+            unfinishedJobs.remove(job.key, job);
+        }
+    }
+
+    private record JobKey(Long userId, ReportType type, Instant startDate, Instant endDate, String abcClass,
+            Integer page, Integer size) {
+    }
+
+    private static final class ReportJob {
+        private final String id;
+        private final JobKey key;
+        private final ReportJobRequest request;
+        private final ZonedDateTime createdAt = ZonedDateTime.now();
+        private volatile ReportJobStatus status = ReportJobStatus.PENDING;
+        private volatile Object result;
+        private volatile String error;
+        private volatile ZonedDateTime completedAt;
+        private volatile Instant expiresAt;
+
+        private ReportJob(String id, JobKey key, ReportJobRequest request) {
+            this.id = id;
+            this.key = key;
+            this.request = request;
+        }
+
+        private void finish(ReportJobStatus finalStatus, Duration ttl) {
+            completedAt = ZonedDateTime.now();
+            expiresAt = Instant.now().plus(ttl);
+            status = finalStatus;
+        }
+
+        /** Unfinished jobs never expire. */
+        private boolean isExpired(Instant now) {
+            Instant expiry = expiresAt;
+            return expiry != null && expiry.isBefore(now);
+        }
+
+        private ReportJobResponse toResponse() {
+            ReportJobStatus currentStatus = status;
+            return new ReportJobResponse(id, request.type(), currentStatus, request.startDate(), request.endDate(),
+                    createdAt, completedAt, currentStatus == ReportJobStatus.COMPLETED ? result : null,
+                    currentStatus == ReportJobStatus.FAILED ? error : null);
+        }
+    }
+}
@@ -2,18 +2,33 @@ package com.flick.business.service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
 
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import com.flick.business.api.dto.response.aministration.reports.AbcAnalysisResponse;
+import com.flick.business.api.dto.response.common.PageResponse;
+import com.flick.business.api.dto.response.reports.FinancialBreakdownResponse;
+import com.flick.business.api.dto.response.reports.FinancialPeriodResponse;
 import com.flick.business.api.dto.response.reports.FinancialSummaryResponse;
-import com.flick.business.repository.ExpenseRepository;
-import com.flick.business.repository.SaleItemRepository;
-import com.flick.business.repository.SaleRepository;
+import com.flick.business.core.enums.AbcClass;
+import com.flick.business.core.enums.ReportGranularity;
+import com.flick.business.core.enums.ReportType;
+import com.flick.business.exception.BusinessException;
+import com.flick.business.repository.DailyProductSalesRepository;
+import com.flick.business.repository.DailySalesSummaryRepository;
 import com.flick.business.service.security.AuthenticatedUserService;
 
 import lombok.RequiredArgsConstructor;
@@ -21,19 +36,103 @@ import lombok.RequiredArgsConstructor;
 @Service
 @RequiredArgsConstructor
 public class ReportService {
-    private final SaleRepository saleRepository;
-    private final SaleItemRepository saleItemRepository;
-    private final ExpenseRepository expenseRepository;
+    public static final int DEFAULT_ABC_PAGE_SIZE = 50;
+    private static final int MAX_ABC_PAGE_SIZE = 500;
+    /** Most periods of a breakdown, about three years of days. */
+    private static final int MAX_PERIODS = 1100;
+
+    private final DailySalesSummaryRepository summaryRepository;
+    private final DailyProductSalesRepository productSalesRepository;
+    private final DailySalesSummaryService dailySalesSummaryService;
     private final AuthenticatedUserService authenticatedUserService;
+    private final ReportCacheService reportCacheService;
 
-    @Transactional(readOnly = true)
+    /**
+     * Not transactional: a cached closed range is answered without taking a
+     * connection, and a load only reads the rollups.
+     */
     public FinancialSummaryResponse getFinancialSummary(ZonedDateTime startDate, ZonedDateTime endDate) {
-        // search expenses
+        return reportCacheService.get(ReportType.FINANCIAL_SUMMARY, startDate, endDate,
+                () -> loadFinancialSummary(startDate, endDate));
+    }
+
+    /**
+     * Financial summary of every day, week or month of a range and of the
+     * whole range, from one read of the rollup.
+     *
+     * @param granularity day, week or month.
+     */
+    public FinancialBreakdownResponse getFinancialBreakdown(ZonedDateTime startDate, ZonedDateTime endDate,
+            String granularity) {
+        ReportGranularity parsedGranularity = parseGranularity(granularity);
+        if (countPeriods(dailySalesSummaryService.toLocalDate(startDate), dailySalesSummaryService.toLocalDate(endDate),
+                parsedGranularity) > MAX_PERIODS) {
+            throw new BusinessException("The range has too many periods for this granularity.");
+        }
+        return reportCacheService.get(ReportType.FINANCIAL_SUMMARY, startDate, endDate, parsedGranularity,
+                () -> loadFinancialBreakdown(startDate, endDate, parsedGranularity));
+    }
+
+    /**
+     * One page of the ABC analysis of the active products, ranked by revenue.
+     * Like the financial summary, it covers whole days of the reporting zone.
+     *
+     * @param abcClass Class to list (A, B or C), or null for every product.
+     * @param page     Zero-based page number.
+     * @param size     Products per page, at most {@value #MAX_ABC_PAGE_SIZE}.
+     */
+    public PageResponse<AbcAnalysisResponse> getAbcAnalisys(ZonedDateTime startDate, ZonedDateTime endDate,
+            String abcClass, int page, int size) {
+        AbcPageRequest request = new AbcPageRequest(parseAbcClass(abcClass), Math.max(page, 0),
+                Math.clamp(size, 1, MAX_ABC_PAGE_SIZE));
+        return reportCacheService.get(ReportType.ABC_ANALYSIS, startDate, endDate, request,
+                () -> loadAbcAnalysis(startDate, endDate, request));
+    }
+
+    private FinancialSummaryResponse loadFinancialSummary(ZonedDateTime startDate, ZonedDateTime endDate) {
+        // read the daily rollup of every day in the range
         Long userId = authenticatedUserService.getAuthenticatedUserId();
-        BigDecimal totalRevenue = saleRepository.sumTotalValueBetweenDates(startDate, endDate, userId);
-        BigDecimal totalCogs = saleRepository.sumTotalCostOfGoodsSoldBetween(startDate, endDate, userId);
-        BigDecimal totalExpenses = expenseRepository.sumTotalValueBetweenDates(startDate, endDate, userId);
+        Object[] totals = summaryRepository.sumBetween(dailySalesSummaryService.toLocalDate(startDate),
+                dailySalesSummaryService.toLocalDate(endDate), userId).get(0);
+        return toSummary((BigDecimal) totals[0], (BigDecimal) totals[1], (BigDecimal) totals[4]);
+    }
+
+    private FinancialBreakdownResponse loadFinancialBreakdown(ZonedDateTime startDate, ZonedDateTime endDate,
+            ReportGranularity granularity) {
+        Long userId = authenticatedUserService.getAuthenticatedUserId();
+        LocalDate startDay = dailySalesSummaryService.toLocalDate(startDate);
+        LocalDate endDay = dailySalesSummaryService.toLocalDate(endDate);
+
+        // one grouped read of the daily rollup; periods without rows are filled with zeros
+        Map<LocalDate, Object[]> rowsByPeriod = new HashMap<>();
+        for (Object[] row : summaryRepository.sumByPeriod(granularity.name().toLowerCase(Locale.ROOT), startDay,
+                endDay, userId)) {
+            rowsByPeriod.put(toLocalDate(row[0]), row);
+        }
 
+        List<FinancialPeriodResponse> periods = new ArrayList<>();
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        BigDecimal totalCogs = BigDecimal.ZERO;
+        BigDecimal totalExpenses = BigDecimal.ZERO;
+        for (LocalDate period = periodStart(startDay, granularity); !period.isAfter(endDay);
+                period = nextPeriod(period, granularity)) {
+            Object[] row = rowsByPeriod.get(period);
+            BigDecimal revenue = row != null ? (BigDecimal) row[1] : BigDecimal.ZERO;
+            BigDecimal cogs = row != null ? (BigDecimal) row[2] : BigDecimal.ZERO;
+            BigDecimal expenses = row != null ? (BigDecimal) row[3] : BigDecimal.ZERO;
+            LocalDate lastDay = nextPeriod(period, granularity).minusDays(1);
+            periods.add(new FinancialPeriodResponse(period.isBefore(startDay) ? startDay : period,
+                    lastDay.isAfter(endDay) ? endDay : lastDay, toSummary(revenue, cogs, expenses)));
+            totalRevenue = totalRevenue.add(revenue);
+            totalCogs = totalCogs.add(cogs);
+            totalExpenses = totalExpenses.add(expenses);
+        }
+        return new FinancialBreakdownResponse(granularity, periods,
+                toSummary(totalRevenue, totalCogs, totalExpenses));
+    }
+
+    private FinancialSummaryResponse toSummary(BigDecimal totalRevenue, BigDecimal totalCogs,
+            BigDecimal totalExpenses) {
         // calculate profits
         BigDecimal grossProfit = totalRevenue.subtract(totalCogs);
         BigDecimal netProfit = grossProfit.subtract(totalExpenses);
@@ -61,12 +160,48 @@ public class ReportService {
                 grossMargin, netMargin, operatingMargin);
     }
 
-    @Transactional(readOnly = true)
-    public List<AbcAnalysisResponse> getAbcAnalisys(ZonedDateTime startDate, ZonedDateTime endDate) {
+    /** First day of the period holding the given day, as DATE_TRUNC computes it. */
+    private static LocalDate periodStart(LocalDate day, ReportGranularity granularity) {
+        return switch (granularity) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    private static LocalDate nextPeriod(LocalDate periodStart, ReportGranularity granularity) {
+        return switch (granularity) {
+            case DAY -> periodStart.plusDays(1);
+            case WEEK -> periodStart.plusWeeks(1);
+            case MONTH -> periodStart.plusMonths(1);
+        };
+    }
+
+    private static long countPeriods(LocalDate startDay, LocalDate endDay, ReportGranularity granularity) {
+        ChronoUnit unit = switch (granularity) {
+            case DAY -> ChronoUnit.DAYS;
+            case WEEK -> ChronoUnit.WEEKS;
+            case MONTH -> ChronoUnit.MONTHS;
+        };
+        return unit.between(periodStart(startDay, granularity), periodStart(endDay, granularity)) + 1;
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return (value instanceof java.sql.Date date) ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    private PageResponse<AbcAnalysisResponse> loadAbcAnalysis(ZonedDateTime startDate, ZonedDateTime endDate,
+            AbcPageRequest request) {
+        // classify over the per-product daily rollup; the database only returns the requested page
         Long userId = authenticatedUserService.getAuthenticatedUserId();
-        List<Object[]> rawResults = saleItemRepository.performAbcAnalysis(startDate, endDate, userId);
+        LocalDate startDay = dailySalesSummaryService.toLocalDate(startDate);
+        LocalDate endDay = dailySalesSummaryService.toLocalDate(endDate);
+        String abcClass = request.abcClass() != null ? request.abcClass().name() : null;
+        Pageable pageable = PageRequest.of(request.page(), request.size());
+        List<Object[]> rows = productSalesRepository.findAbcPage(startDay, endDay, userId, abcClass,
+                pageable.getPageSize(), pageable.getOffset());
 
-        return rawResults.stream()
+        List<AbcAnalysisResponse> content = rows.stream()
                 .map(row -> new AbcAnalysisResponse(
                         ((Number) row[0]).longValue(), // productId
                         (String) row[1], // productName
@@ -75,6 +210,33 @@ public class ReportService {
                         ((Number) row[4]).doubleValue(), // cumulativePercentage
                         (String) row[5] // abcClass
                 ))
-                .collect(Collectors.toList());
+                .toList();
+        // every row carries the filtered count; a page past the end has to ask for it
+        long total = !rows.isEmpty() ? ((Number) rows.get(0)[6]).longValue()
+                : pageable.getOffset() == 0 ? 0 : productSalesRepository.countAbc(startDay, endDay, userId, abcClass);
+        return new PageResponse<>(new PageImpl<>(content, pageable, total));
+    }
+
+    static ReportGranularity parseGranularity(String granularityStr) {
+        try {
+            return ReportGranularity.valueOf(granularityStr.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new BusinessException("Invalid granularity: " + granularityStr);
+        }
+    }
+
+    static AbcClass parseAbcClass(String abcClassStr) {
+        if (abcClassStr == null || abcClassStr.isBlank()) {
+            return null;
+        }
+        try {
+            return AbcClass.valueOf(abcClassStr.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new BusinessException("Invalid ABC class: " + abcClassStr);
+        }
+    }
+
+    /** Page of an ABC analysis, also the cache key of its parameters. */
+    private record AbcPageRequest(AbcClass abcClass, int page, int size) {
     }
 }
@@ -0,0 +1,40 @@
+package com.flick.business.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Backfills the daily sales and product rollups and the receivables snapshots
+ * at startup when the application is started with
+ * {@code --app.rollup.rebuild=true}. Set {@code app.rollup.rebuild-user-id} as
+ * well to rebuild a single tenant.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.rollup.rebuild", havingValue = "true")
+@RequiredArgsConstructor
+public class RollupRebuildRunner implements ApplicationRunner {
+    private final DailySalesSummaryService summaryService;
+    private final DailyProductSalesService productSalesService;
+    private final ReceivablesSnapshotService receivablesSnapshotService;
+
+    @Value("${app.rollup.rebuild-user-id:#{null}}")
+    private Long userId;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String scope = userId == null ? "all tenants" : "user " + userId;
+        int rows = summaryService.rebuild(userId);
+        log.info("Rebuilt daily sales summary for {}: {} rows", scope, rows);
+        int productRows = productSalesService.rebuild(userId);
+        log.info("Rebuilt daily product sales for {}: {} rows", scope, productRows);
+        int snapshots = receivablesSnapshotService.rebuild(userId);
+        log.info("Rebuilt receivables snapshots for {}: {} rows", scope, snapshots);
+    }
+}
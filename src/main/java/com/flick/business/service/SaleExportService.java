@@ -0,0 +1,196 @@
+package com.flick.business.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flick.business.api.dto.response.commercial.SaleItemResponse;
+import com.flick.business.api.dto.response.commercial.SaleResponse;
+import com.flick.business.api.dto.response.summary.CustomerSummaryResponse;
+import com.flick.business.api.dto.response.summary.ProductSummaryResponse;
+import com.flick.business.core.enums.PaymentMethod;
+import com.flick.business.core.enums.PaymentStatus;
+import com.flick.business.exception.BusinessException;
+import com.flick.business.repository.SaleRepository;
+import com.flick.business.service.security.AuthenticatedUserService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Streams the full sale history matching the list filters. Rows are read
+ * through a database cursor and written straight to the response, so memory
+ * use does not depend on how many sales are exported.
+ */
+@Service
+@RequiredArgsConstructor
+public class SaleExportService {
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "sale_id,sale_date,payment_method,payment_status,sale_total,"
+            + "customer_id,customer_name,description,item_id,product_id,product_name,quantity,unit_price,item_total";
+
+    private final SaleRepository saleRepository;
+    private final AuthenticatedUserService authenticatedUserService;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    public enum ExportFormat {
+        NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+        CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        ExportFormat(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static ExportFormat from(String format) {
+            if (format == null || format.isBlank()) {
+                return NDJSON;
+            }
+            try {
+                return valueOf(format.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new BusinessException("Invalid export format: " + format);
+            }
+        }
+    }
+
+    /**
+     * Validates the filters and returns the body that streams the export. NDJSON
+     * writes one sale per line with its items; CSV writes one line per item.
+     * The user and filters are resolved here, on the request thread, because
+     * the body is written later on an async thread.
+     */
+    public StreamingResponseBody export(ZonedDateTime startDate, ZonedDateTime endDate, Long customerId,
+            String paymentMethodStr, String paymentStatusStr, Long productId, ExportFormat format) {
+        PaymentMethod paymentMethod = SaleService.parsePaymentMethod(paymentMethodStr);
+        PaymentStatus paymentStatus = SaleService.parsePaymentStatus(paymentStatusStr);
+        Long userId = authenticatedUserService.getAuthenticatedUserId();
+        ZonedDateTime effectiveStartDate = startDate != null ? startDate : ZonedDateTime.parse("1900-01-01T00:00:00Z");
+        ZonedDateTime effectiveEndDate = endDate != null ? endDate : ZonedDateTime.parse("9999-12-31T23:59:59Z");
+
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        return outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8),
+                    WRITE_BUFFER_SIZE);
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    try (Stream<Object[]> rows = saleRepository.streamExportRows(effectiveStartDate,
+                            effectiveEndDate, userId, customerId, paymentMethod, paymentStatus, productId)) {
+                        if (format == ExportFormat.CSV) {
+                            writeCsv(rows.iterator(), writer);
+                        } else {
+                            writeNdjson(rows.iterator(), writer);
+                        }
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+            writer.flush();
+        };
+    }
+
+    private void writeNdjson(Iterator<Object[]> rows, Writer writer) throws IOException {
+        Object[] saleRow = null;
+        List<SaleItemResponse> items = new ArrayList<>();
+        while (rows.hasNext()) {
+            Object[] row = rows.next();
+            if (saleRow != null && !saleRow[0].equals(row[0])) {
+                writeSaleLine(saleRow, items, writer);
+                items = new ArrayList<>();
+            }
+            saleRow = row;
+            BigDecimal quantity = (BigDecimal) row[11];
+            BigDecimal unitPrice = (BigDecimal) row[12];
+            items.add(new SaleItemResponse((Long) row[8], new ProductSummaryResponse((Long) row[9], (String) row[10]),
+                    quantity, unitPrice, quantity.multiply(unitPrice)));
+        }
+        if (saleRow != null) {
+            writeSaleLine(saleRow, items, writer);
+        }
+    }
+
+    private void writeSaleLine(Object[] row, List<SaleItemResponse> items, Writer writer) throws IOException {
+        SaleResponse sale = new SaleResponse(
+                (Long) row[0],
+                (BigDecimal) row[4],
+                row[5] != null ? new CustomerSummaryResponse((Long) row[5], (String) row[6]) : null,
+                (PaymentMethod) row[2],
+                (PaymentStatus) row[3],
+                (String) row[7],
+                (ZonedDateTime) row[1],
+                items);
+        writer.write(objectMapper.writeValueAsString(sale));
+        writer.write('\n');
+    }
+
+    private void writeCsv(Iterator<Object[]> rows, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        while (rows.hasNext()) {
+            Object[] row = rows.next();
+            BigDecimal quantity = (BigDecimal) row[11];
+            BigDecimal unitPrice = (BigDecimal) row[12];
+            writer.write(String.join(",",
+                    String.valueOf(row[0]),
+                    ((ZonedDateTime) row[1]).toOffsetDateTime().toString(),
+                    String.valueOf(row[2]),
+                    String.valueOf(row[3]),
+                    ((BigDecimal) row[4]).toPlainString(),
+                    row[5] != null ? String.valueOf(row[5]) : "",
+                    csvText((String) row[6]),
+                    csvText((String) row[7]),
+                    String.valueOf(row[8]),
+                    String.valueOf(row[9]),
+                    csvText((String) row[10]),
+                    quantity.toPlainString(),
+                    unitPrice.toPlainString(),
+                    quantity.multiply(unitPrice).toPlainString()));
+            writer.write("\r\n");
+        }
+    }
+
+    /**
+     * Quotes free text for CSV and keeps spreadsheet programs from evaluating
+     * values that start like a formula.
+     */
+    private String csvText(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        String safe = "=+-@".indexOf(value.charAt(0)) >= 0 ? "'" + value : value;
+        return "\"" + safe.replace("\"", "\"\"") + "\"";
+    }
+}
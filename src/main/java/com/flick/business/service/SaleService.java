@@ -1,22 +1,26 @@
 package com.flick.business.service;
 
+import com.flick.business.api.dto.request.commercial.SaleItemRequest;
 import com.flick.business.api.dto.request.commercial.SaleRequest;
+import com.flick.business.api.dto.response.commercial.SaleItemResponse;
 import com.flick.business.api.dto.response.commercial.SaleResponse;
+import com.flick.business.api.dto.response.common.CursorPageResponse;
 import com.flick.business.api.dto.response.common.PageResponse;
 import com.flick.business.api.dto.response.common.GroupSummary;
 import com.flick.business.api.dto.response.common.TotalByPaymentMethod;
+import com.flick.business.api.dto.response.summary.ProductSummaryResponse;
 import com.flick.business.core.entity.Customer;
-import com.flick.business.core.entity.GeneralSettings;
 import com.flick.business.core.entity.Product;
 import com.flick.business.core.entity.Sale;
 import com.flick.business.core.entity.SaleItem;
+import com.flick.business.core.entity.security.User;
 import com.flick.business.core.enums.PaymentMethod;
 import com.flick.business.core.enums.PaymentStatus;
 import com.flick.business.core.enums.settings.StockControlType;
 import com.flick.business.exception.BusinessException;
 import com.flick.business.exception.ResourceNotFoundException;
-import com.flick.business.repository.CustomerRepository;
 import com.flick.business.repository.ProductRepository;
+import com.flick.business.repository.SaleItemRepository;
 import com.flick.business.repository.SaleRepository;
 import com.flick.business.repository.spec.SaleSpecification;
 import com.flick.business.service.security.AuthenticatedUserService;
@@ -30,13 +34,23 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -47,17 +61,33 @@ public class SaleService {
     private final ProductService productService;
     private final CustomerService customerService;
     private final ProductRepository productRepository;
-    private final CustomerRepository customerRepository;
+    private final SaleItemRepository saleItemRepository;
     private final GeneralSettingsService settingsService;
+    private final DailySalesSummaryService dailySalesSummaryService;
+    private final DailyProductSalesService dailyProductSalesService;
+    private final ReceivablesSnapshotService receivablesSnapshotService;
+    private final DataVersionService dataVersionService;
+    private final DashboardStreamService dashboardStreamService;
+    private final ReportCacheService reportCacheService;
     private final AuthenticatedUserService authenticatedUserService;
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     @Transactional
     public SaleResponse registerSale(SaleRequest request) {
-        GeneralSettings settings = settingsService.findEntity();
-        StockControlType stockControl = settings.getStockControlType();
+        StockControlType stockControl = settingsService.getStockControlType();
+
+        if (request.items() == null || request.items().isEmpty()) {
+            throw new BusinessException("A sale must contain at least one item.");
+        }
 
+        User user = authenticatedUserService.getAuthenticatedUser();
+
+        // one instant for the response, the rollups and the units sold, set before the deferred insert
+        ZonedDateTime saleDate = ZonedDateTime.now();
         Sale newSale = new Sale();
-        newSale.setUser(authenticatedUserService.getAuthenticatedUser());
+        newSale.setUser(user);
+        newSale.setSaleDate(saleDate);
         newSale.setPaymentMethod(request.paymentMethod());
         newSale.setDescription(request.description());
 
@@ -70,31 +100,58 @@ public class SaleService {
             newSale.setPaymentStatus(PaymentStatus.NOT_APPLICABLE);
         }
 
-        BigDecimal totalValue = BigDecimal.ZERO;
+        Map<Long, BigDecimal> requestedQuantities = mergeItemQuantities(request.items());
+        Map<Long, Product> products = loadProducts(requestedQuantities.keySet());
+        validateStock(requestedQuantities, products, stockControl);
 
-        for (var itemRequest : request.items()) {
-            Product product = productService.findEntityById(itemRequest.productId());
+        BigDecimal totalValue = BigDecimal.ZERO;
+        BigDecimal costOfGoods = BigDecimal.ZERO;
+        List<String> shortages = new ArrayList<>();
 
-            boolean isStockManagedForItem = isStockManaged(product, stockControl);
+        // rows are locked in product order, so concurrent baskets sharing products cannot deadlock
+        for (Map.Entry<Long, BigDecimal> entry : new TreeMap<>(requestedQuantities).entrySet()) {
+            Product product = products.get(entry.getKey());
+            BigDecimal quantity = entry.getValue();
 
-            if (isStockManagedForItem) {
-                validateAndDecrementStock(product, itemRequest.quantity());
+            if (isStockManaged(product, stockControl) && !decrementStock(product, quantity, user.getId())) {
+                shortages.add(describeShortage(product, productRepository.findStockQuantityById(product.getId()),
+                        quantity));
             }
+        }
+
+        for (Map.Entry<Long, BigDecimal> entry : requestedQuantities.entrySet()) {
+            Product product = products.get(entry.getKey());
+            BigDecimal quantity = entry.getValue();
 
             SaleItem saleItem = SaleItem.builder()
                     .product(product)
-                    .quantity(itemRequest.quantity())
+                    .quantity(quantity)
                     .unitPrice(product.getSalePrice())
+                    .unitCostPrice(product.getCostPrice())
                     .build();
 
             newSale.addItem(saleItem);
             totalValue = totalValue.add(saleItem.getTotalValue());
+            costOfGoods = costOfGoods.add(saleItem.getTotalCost());
         }
 
+        if (!shortages.isEmpty()) {
+            throw new BusinessException(String.join("; ", shortages));
+        }
+
+        // products are locked before the customer, as in sale deletion
+        recordUnitsSold(requestedQuantities, saleDate, user.getId());
+
         newSale.setTotalValue(totalValue);
         updateCustomerDebt(customer, newSale);
 
         Sale savedSale = saleRepository.save(newSale);
+        // last writes of the sale, so the rows of the day stay locked as briefly as possible
+        dailySalesSummaryService.recordSale(savedSale, costOfGoods);
+        dailyProductSalesService.recordSale(savedSale);
+        receivablesSnapshotService.recordSale(savedSale);
+        dataVersionService.bump();
+        dashboardStreamService.publishSale(savedSale);
 
         return SaleResponse.fromEntity(savedSale);
     }
@@ -115,7 +172,45 @@ public class SaleService {
                 paymentStatus, productId, authenticatedUserService.getAuthenticatedUserId());
 
         Page<Sale> salePage = saleRepository.findAll(spec, pageable);
-        return new PageResponse<>(salePage.map(SaleResponse::fromEntity));
+        Map<Long, List<SaleItemResponse>> itemsBySaleId = loadItemsBySaleId(salePage.getContent());
+        return new PageResponse<>(salePage.map(sale -> SaleResponse.fromEntity(sale,
+                itemsBySaleId.getOrDefault(sale.getId(), List.of()))));
+    }
+
+    /**
+     * Keyset-paginated variant of {@link #listAll}. Each slice seeks past the
+     * last row of the previous one on (sale_date, id) or (total_value, id), so
+     * deep slices cost the same as the first and no count query is run.
+     *
+     * @param cursor Opaque cursor from the previous slice, or null for the first.
+     * @param size   Maximum number of sales in the slice.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<SaleResponse> listByCursor(ZonedDateTime startDate, ZonedDateTime endDate,
+            Long customerId, String paymentMethodStr, String paymentStatusStr, Long productId, String orderBy,
+            String cursor, int size) {
+        PaymentMethod paymentMethod = parsePaymentMethod(paymentMethodStr);
+        PaymentStatus paymentStatus = parsePaymentStatus(paymentStatusStr);
+        KeysetOrder order = KeysetOrder.from(orderBy);
+        int sliceSize = Math.clamp(size, 1, MAX_CURSOR_PAGE_SIZE);
+
+        Specification<Sale> spec = SaleSpecification.withFilters(startDate, endDate, customerId, paymentMethod,
+                paymentStatus, productId, authenticatedUserService.getAuthenticatedUserId());
+        if (cursor != null && !cursor.isBlank()) {
+            spec = spec.and(order.seekAfter(cursor));
+        }
+
+        Sort sort = Sort.by(order.direction, order.attribute).and(Sort.by(order.direction, "id"));
+        List<Sale> rows = saleRepository.findBy(spec, query -> query.sortBy(sort).limit(sliceSize + 1).all());
+        boolean hasNext = rows.size() > sliceSize;
+        List<Sale> sales = hasNext ? rows.subList(0, sliceSize) : rows;
+
+        Map<Long, List<SaleItemResponse>> itemsBySaleId = loadItemsBySaleId(sales);
+        List<SaleResponse> content = sales.stream()
+                .map(sale -> SaleResponse.fromEntity(sale, itemsBySaleId.getOrDefault(sale.getId(), List.of())))
+                .toList();
+        String nextCursor = hasNext ? order.cursorAfter(sales.get(sales.size() - 1)) : null;
+        return new CursorPageResponse<>(content, sliceSize, nextCursor, hasNext);
     }
 
     @Transactional(readOnly = true)
@@ -154,97 +249,142 @@ public class SaleService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Totals the filtered sales per group. Aggregation runs in the database, so
+     * only one row per group is read whatever the number of sales.
+     *
+     * @param groupBy day, week, month, customer, paymentMethod, product or
+     *                category.
+     */
     @Transactional(readOnly = true)
     public List<GroupSummary> getSummaryByGroup(ZonedDateTime startDate, ZonedDateTime endDate, Long customerId,
             String paymentMethodStr, Long productId, String groupBy) {
         PaymentMethod paymentMethod = parsePaymentMethod(paymentMethodStr);
+        String paymentMethodName = paymentMethod != null ? paymentMethod.name() : null;
         Long userId = authenticatedUserService.getAuthenticatedUserId();
 
-        Specification<Sale> spec = SaleSpecification.withFilters(
-                startDate, endDate, customerId, paymentMethod, null, productId, userId);
-        List<Sale> sales = saleRepository.findAll(spec);
+        ZonedDateTime effectiveStartDate = (startDate != null)
+                ? startDate
+                : ZonedDateTime.parse("1900-01-01T00:00:00Z");
+        ZonedDateTime effectiveEndDate = (endDate != null)
+                ? endDate
+                : ZonedDateTime.parse("9999-12-31T23:59:59Z");
 
         String normalizedGroupBy = groupBy == null ? "" : groupBy.trim().toLowerCase(Locale.ROOT);
-        Map<String, GroupSummary> groupedSummaries = new LinkedHashMap<>();
-
-        for (Sale sale : sales) {
-            String groupKey;
-            String groupTitle;
-
-            switch (normalizedGroupBy) {
-                case "day", "date" -> {
-                    groupKey = sale.getSaleDate().toLocalDate().toString();
-                    groupTitle = groupKey;
-                }
-                case "customer" -> {
-                    if (sale.getCustomer() == null) {
-                        groupKey = "NO_CUSTOMER";
-                        groupTitle = "No customer";
-                    } else {
-                        groupKey = String.valueOf(sale.getCustomer().getId());
-                        groupTitle = sale.getCustomer().getName();
-                    }
-                }
-                case "paymentmethod", "payment_method", "payment" -> {
-                    groupKey = sale.getPaymentMethod().name();
-                    groupTitle = groupKey;
-                }
-                default -> throw new BusinessException(
-                        "Invalid groupBy parameter. Supported values: day, customer, paymentMethod");
-            }
-
-            GroupSummary existing = groupedSummaries.get(groupKey);
-            if (existing == null) {
-                groupedSummaries.put(groupKey, new GroupSummary(groupKey, groupTitle, sale.getTotalValue()));
-            } else {
-                groupedSummaries.put(
-                        groupKey,
-                        new GroupSummary(
-                                existing.getGroupKey(),
-                                existing.getGroupTitle(),
-                                existing.getTotalValue().add(sale.getTotalValue())));
-            }
-        }
+        // buckets follow the reporting zone, so a sale falls on the same day as in the dashboard
+        String zone = dailySalesSummaryService.getZone().getId();
+        List<Object[]> rows = switch (normalizedGroupBy) {
+            case "day", "date" -> saleRepository.summarizeSalesByGroup("day", effectiveStartDate,
+                    effectiveEndDate, userId, customerId, paymentMethodName, productId, zone);
+            case "week", "month", "customer" -> saleRepository.summarizeSalesByGroup(normalizedGroupBy,
+                    effectiveStartDate, effectiveEndDate, userId, customerId, paymentMethodName, productId, zone);
+            case "paymentmethod", "payment_method", "payment" -> saleRepository.summarizeSalesByGroup("payment",
+                    effectiveStartDate, effectiveEndDate, userId, customerId, paymentMethodName, productId, zone);
+            case "product", "category" -> saleRepository.summarizeItemsByGroup(normalizedGroupBy,
+                    effectiveStartDate, effectiveEndDate, userId, customerId, paymentMethodName, productId);
+            default -> throw new BusinessException(
+                    "Invalid groupBy parameter. Supported values: day, week, month, customer, paymentMethod, "
+                            + "product, category");
+        };
 
-        return groupedSummaries.values().stream()
-                .sorted(Comparator.comparing(GroupSummary::getGroupKey))
+        return rows.stream()
+                .map(row -> new GroupSummary(
+                        (String) row[0],
+                        (String) row[1],
+                        (BigDecimal) row[2],
+                        ((Number) row[3]).longValue(),
+                        (BigDecimal) row[4]))
                 .collect(Collectors.toList());
     }
 
     @Transactional
     public void deletePermanently(Long saleId) {
-        Long userId = authenticatedUserService.getAuthenticatedUserId();
-        Sale saleToDelete = saleRepository.findByIdAndUserId(saleId, userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Sale not found with ID: " + saleId));
-
-        // restock
-        if (saleToDelete.getItems() != null) {
-            List<Product> productsToUpdate = new ArrayList<>();
-            for (SaleItem item : saleToDelete.getItems()) {
-                Product product = item.getProduct();
-                // product have stock management = 1 ?
-                if (product.isManageStock()) {
-                    product.setStockQuantity(product.getStockQuantity().add(item.getQuantity()));
-                    productsToUpdate.add(product);
-                }
-            }
-            if (!productsToUpdate.isEmpty()) {
-                productRepository.saveAll(productsToUpdate);
-            }
+        reverseAndDelete(Set.of(saleId));
+    }
+
+    /**
+     * Deletes many sales in one transaction, reversing their stock and debt
+     * exactly like {@link #deletePermanently(Long)}. Nothing is deleted if any ID
+     * is unknown.
+     *
+     * @param saleIds IDs of the sales to delete.
+     */
+    @Transactional
+    public void deleteAllPermanently(Collection<Long> saleIds) {
+        reverseAndDelete(new LinkedHashSet<>(saleIds));
+    }
+
+    // -- utils --
+
+    /**
+     * Second phase of a sale page: the items of every sale on the page are read
+     * in one query, so the number of queries does not grow with the page size.
+     */
+    private Map<Long, List<SaleItemResponse>> loadItemsBySaleId(List<Sale> sales) {
+        if (sales.isEmpty()) {
+            return Map.of();
         }
+        List<Long> saleIds = sales.stream().map(Sale::getId).toList();
+        return saleItemRepository.findItemRowsBySaleIds(saleIds).stream()
+                .collect(Collectors.groupingBy(
+                        row -> (Long) row[0],
+                        Collectors.mapping(row -> {
+                            BigDecimal quantity = (BigDecimal) row[4];
+                            BigDecimal unitPrice = (BigDecimal) row[5];
+                            return new SaleItemResponse(
+                                    (Long) row[1],
+                                    new ProductSummaryResponse((Long) row[2], (String) row[3]),
+                                    quantity,
+                                    unitPrice,
+                                    quantity.multiply(unitPrice));
+                        }, Collectors.toList())));
+    }
+
+    /**
+     * Reverses and deletes sales with a fixed number of set-based statements,
+     * whatever the number of sales, items or customers involved.
+     */
+    private void reverseAndDelete(Set<Long> saleIds) {
+        Long userId = authenticatedUserService.getAuthenticatedUserId();
 
-        // return credit to customer if aplicable
-        if (saleToDelete.getPaymentMethod() == PaymentMethod.ON_CREDIT && saleToDelete.getCustomer() != null) {
-            Customer customer = saleToDelete.getCustomer();
-            customer.setDebtBalance(customer.getDebtBalance().subtract(saleToDelete.getTotalValue()));
-            customerRepository.save(customer);
+        // lock the sales first, so a concurrent payment cannot settle them meanwhile
+        Set<Long> ownedIds = new HashSet<>(saleRepository.lockOwnedIds(saleIds, userId));
+        List<Long> missingIds = saleIds.stream()
+                .filter(id -> !ownedIds.contains(id))
+                .toList();
+        if (missingIds.size() == 1) {
+            throw new ResourceNotFoundException("Sale not found with ID: " + missingIds.get(0));
+        }
+        if (!missingIds.isEmpty()) {
+            throw new ResourceNotFoundException("Sales not found with IDs: " + missingIds.stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(", ")));
         }
 
-        // delete sale
-        saleRepository.delete(saleToDelete);
+        // the sale dates are read before the rows go away
+        reportCacheService.evictSales(saleIds, userId);
+        productRepository.restockFromSales(saleIds, userId);
+        productRepository.subtractUnitsSold(saleIds, userId);
+        customerService.reverseDebtOfPendingSales(saleIds);
+        dailySalesSummaryService.reverseSales(saleIds, userId);
+        dailyProductSalesService.reverseSales(saleIds, userId);
+        receivablesSnapshotService.reverseSales(saleIds, userId);
+        saleItemRepository.deleteBySaleIds(saleIds);
+        saleRepository.deleteOwnedByIds(saleIds, userId);
+        dataVersionService.bump();
+        dashboardStreamService.publishSalesDeleted(userId);
+    }
+
+    /**
+     * Adds the quantities of a new sale to its products' units sold with one
+     * statement, in product order, with the sale's date as last sale time.
+     */
+    private void recordUnitsSold(Map<Long, BigDecimal> quantities, ZonedDateTime saleDate, Long userId) {
+        Map<Long, BigDecimal> byProduct = new TreeMap<>(quantities);
+        productRepository.addUnitsSold(byProduct.keySet().toArray(Long[]::new),
+                byProduct.values().toArray(BigDecimal[]::new), saleDate, userId);
     }
 
-    // -- utils --
     private boolean isStockManaged(Product product, StockControlType stockControl) {
         return switch (stockControl) {
             case GLOBAL -> true;
@@ -253,13 +393,74 @@ public class SaleService {
         };
     }
 
-    private void validateAndDecrementStock(Product product, BigDecimal requestedQuantity) {
-        if (product.getStockQuantity().compareTo(requestedQuantity) < 0) {
-            throw new BusinessException("Insufficient stock for product: " + product.getName() + ". Available: "
-                    + product.getStockQuantity() + ", Requested: " + requestedQuantity);
+    /**
+     * Merges request lines that point to the same product, keeping the order in
+     * which each product first appears.
+     */
+    private Map<Long, BigDecimal> mergeItemQuantities(List<SaleItemRequest> items) {
+        Map<Long, BigDecimal> quantities = new LinkedHashMap<>();
+        for (SaleItemRequest item : items) {
+            quantities.merge(item.productId(), item.quantity(), BigDecimal::add);
+        }
+        return quantities;
+    }
+
+    /**
+     * Loads all products of a sale in a single query and reports every missing
+     * ID together.
+     */
+    private Map<Long, Product> loadProducts(Set<Long> productIds) {
+        Map<Long, Product> products = productService.findEntitiesByIds(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<Long> missingIds = productIds.stream()
+                .filter(id -> !products.containsKey(id))
+                .toList();
+        if (missingIds.size() == 1) {
+            throw new ResourceNotFoundException("Product not found with ID: " + missingIds.get(0));
+        }
+        if (!missingIds.isEmpty()) {
+            throw new ResourceNotFoundException("Products not found with IDs: " + missingIds.stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(", ")));
+        }
+        return products;
+    }
+
+    /**
+     * Checks the stock of every managed product before anything is changed, so
+     * a single error lists all shortages of the sale.
+     */
+    private void validateStock(Map<Long, BigDecimal> requestedQuantities, Map<Long, Product> products,
+            StockControlType stockControl) {
+        List<String> shortages = new ArrayList<>();
+        requestedQuantities.forEach((productId, requestedQuantity) -> {
+            Product product = products.get(productId);
+            if (isStockManaged(product, stockControl)
+                    && product.getStockQuantity().compareTo(requestedQuantity) < 0) {
+                shortages.add(describeShortage(product, product.getStockQuantity(), requestedQuantity));
+            }
+        });
+        if (!shortages.isEmpty()) {
+            throw new BusinessException(String.join("; ", shortages));
         }
+    }
+
+    /**
+     * Decrements stock with a guarded UPDATE instead of writing back the value
+     * read into the entity, which would lose concurrent sales of the same
+     * product. The in-memory entity is left untouched on purpose so that dirty
+     * checking never overwrites the stock column.
+     *
+     * @return false if another sale consumed the stock in the meantime.
+     */
+    private boolean decrementStock(Product product, BigDecimal quantity, Long userId) {
+        return productRepository.decrementStockIfAvailable(product.getId(), userId, quantity) > 0;
+    }
 
-        product.setStockQuantity(product.getStockQuantity().subtract(requestedQuantity));
+    private String describeShortage(Product product, BigDecimal availableQuantity, BigDecimal requestedQuantity) {
+        return "Insufficient stock for product: " + product.getName() + ". Available: " + availableQuantity
+                + ", Requested: " + requestedQuantity;
     }
 
     private Customer validateAndGetCustomer(SaleRequest request) {
@@ -269,13 +470,11 @@ public class SaleService {
         return (request.customerId() != null) ? customerService.findEntityById(request.customerId()) : null;
     }
 
-    private void validateStock(Product product, BigDecimal requestedQuantity) {
-        if (product.getStockQuantity().compareTo(requestedQuantity) < 0) {
-            throw new BusinessException("Insufficient stock for product: " + product.getName() +
-                    ". Available: " + product.getStockQuantity() + ", Requested: " + requestedQuantity);
-        }
-    }
-
+    /**
+     * Checks credit against the loaded customer for a clear error, then charges
+     * the debt through the guarded ledger update, which repeats the limit check
+     * against the current balance.
+     */
     private void updateCustomerDebt(Customer customer, Sale sale) {
         if (customer != null && sale.getPaymentMethod() == PaymentMethod.ON_CREDIT) {
             if (!customer.getCreditEnabled()) {
@@ -285,8 +484,66 @@ public class SaleService {
             if (customer.getCreditLimit() != null && newDebt.compareTo(customer.getCreditLimit()) > 0) {
                 throw new BusinessException("Credit limit exceeded for customer: " + customer.getName());
             }
-            customer.setDebtBalance(newDebt);
-            customer.setLastCreditPurchaseAt(sale.getSaleDate());
+            customerService.chargeCredit(customer, sale.getTotalValue());
+        }
+    }
+
+    /**
+     * Orders supported by cursor pagination. The cursor is the Base64 encoding
+     * of the order name and the sort key and id of the last sale returned.
+     */
+    private enum KeysetOrder {
+        DATE_DESC("saleDate", Sort.Direction.DESC),
+        DATE_ASC("saleDate", Sort.Direction.ASC),
+        PRICE_DESC("totalValue", Sort.Direction.DESC),
+        PRICE_ASC("totalValue", Sort.Direction.ASC);
+
+        private final String attribute;
+        private final Sort.Direction direction;
+
+        KeysetOrder(String attribute, Sort.Direction direction) {
+            this.attribute = attribute;
+            this.direction = direction;
+        }
+
+        static KeysetOrder from(String orderBy) {
+            if (orderBy == null || orderBy.isBlank()) {
+                return DATE_DESC;
+            }
+            return switch (orderBy.trim().toLowerCase(Locale.ROOT)) {
+                case "dateasc", "date_asc" -> DATE_ASC;
+                case "price_desc" -> PRICE_DESC;
+                case "price_asc" -> PRICE_ASC;
+                case "customer_asc", "customer_desc" -> throw new BusinessException(
+                        "Cursor pagination supports ordering by date or price only.");
+                default -> DATE_DESC;
+            };
+        }
+
+        String cursorAfter(Sale sale) {
+            String key = attribute.equals("saleDate")
+                    ? sale.getSaleDate().toInstant().toString()
+                    : sale.getTotalValue().toPlainString();
+            String raw = name() + "|" + key + "|" + sale.getId();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        Specification<Sale> seekAfter(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                        .split("\\|", 3);
+                if (parts.length != 3 || !parts[0].equals(name())) {
+                    throw new IllegalArgumentException("Cursor belongs to another order");
+                }
+                Long id = Long.valueOf(parts[2]);
+                boolean descending = direction.isDescending();
+                return attribute.equals("saleDate")
+                        ? SaleSpecification.seekAfter(attribute,
+                                Instant.parse(parts[1]).atZone(ZoneOffset.UTC), id, descending)
+                        : SaleSpecification.seekAfter(attribute, new BigDecimal(parts[1]), id, descending);
+            } catch (IllegalArgumentException | DateTimeParseException ex) {
+                throw new BusinessException("Invalid cursor.");
+            }
         }
     }
 
@@ -306,7 +563,7 @@ public class SaleService {
         };
     }
 
-    private PaymentMethod parsePaymentMethod(String paymentMethodStr) {
+    static PaymentMethod parsePaymentMethod(String paymentMethodStr) {
         if (paymentMethodStr == null || paymentMethodStr.isBlank()) {
             return null;
         }
@@ -317,7 +574,7 @@ public class SaleService {
         }
     }
 
-    private PaymentStatus parsePaymentStatus(String paymentStatusStr) {
+    static PaymentStatus parsePaymentStatus(String paymentStatusStr) {
         if (paymentStatusStr == null || paymentStatusStr.isBlank()) {
             return null;
         }
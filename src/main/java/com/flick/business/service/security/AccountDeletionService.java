@@ -15,6 +15,19 @@ public class AccountDeletionService {
 
     @Transactional
     public void deleteAccountAndRelatedData(Long userId) {
+        // Derived rollups
+        entityManager.createNativeQuery("DELETE FROM daily_sales_summary WHERE user_id = :userId")
+                .setParameter("userId", userId)
+                .executeUpdate();
+
+        entityManager.createNativeQuery("DELETE FROM daily_product_sales WHERE user_id = :userId")
+                .setParameter("userId", userId)
+                .executeUpdate();
+
+        entityManager.createNativeQuery("DELETE FROM receivables_snapshots WHERE user_id = :userId")
+                .setParameter("userId", userId)
+                .executeUpdate();
+
         // Payment dependencies (payment_sales -> payments -> customers)
         entityManager.createNativeQuery("""
                 DELETE FROM payment_sales
@@ -86,6 +99,10 @@ public class AccountDeletionService {
                 .setParameter("userId", userId)
                 .executeUpdate();
 
+        entityManager.createNativeQuery("DELETE FROM idempotency_keys WHERE user_id = :userId")
+                .setParameter("userId", userId)
+                .executeUpdate();
+
         userRepository.deleteById(userId);
     }
 }
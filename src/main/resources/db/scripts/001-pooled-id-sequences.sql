@@ -0,0 +1,17 @@
+-- Sale, SaleItem, RestockItem and Payment moved from IDENTITY columns to pooled
+-- sequences (allocationSize = 50) so Hibernate can batch their inserts.
+--
+-- New databases get the sequences from ddl-auto. Existing databases must run
+-- this script once, before the new version takes traffic, so the sequences
+-- start above the ids already in use. The old identity defaults stay in place
+-- and are simply no longer used.
+
+CREATE SEQUENCE IF NOT EXISTS sales_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS sale_items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS restock_items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS payments_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('sales_seq', (SELECT COALESCE(MAX(id), 0) FROM sales) + 50);
+SELECT setval('sale_items_seq', (SELECT COALESCE(MAX(id), 0) FROM sale_items) + 50);
+SELECT setval('restock_items_seq', (SELECT COALESCE(MAX(id), 0) FROM restock_items) + 50);
+SELECT setval('payments_seq', (SELECT COALESCE(MAX(id), 0) FROM payments) + 50);
@@ -0,0 +1,10 @@
+-- Indexes backing keyset pagination of GET /api/sales/cursor, which seeks on
+-- (sale_date, id) or (total_value, id) within a tenant.
+--
+-- ddl-auto creates them on new databases. On existing databases run this
+-- script before deploying: CONCURRENTLY builds the indexes without blocking
+-- sales, whereas ddl-auto would lock the table while building them at startup.
+-- CONCURRENTLY cannot run inside a transaction block, so do not wrap it in one.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_sales_user_date_id ON sales (user_id, sale_date, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_sales_user_total_id ON sales (user_id, total_value, id);
@@ -0,0 +1,8 @@
+-- Index on sale_items.sale_id. PostgreSQL does not index foreign keys by
+-- itself, and items are now read, summed and deleted by sale id in bulk
+-- (sale list pages, grouped summaries, sale deletion).
+--
+-- ddl-auto creates it on new databases; run this script on existing ones
+-- before deploying. Do not wrap it in a transaction block.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_sale_items_sale_id ON sale_items (sale_id);
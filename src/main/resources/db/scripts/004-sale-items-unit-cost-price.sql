@@ -0,0 +1,42 @@
+-- Unit cost snapshot on sale items. COGS and the daily rollup now read
+-- sale_items.unit_cost_price instead of joining products.cost_price, so a
+-- cost change no longer revalues past sales.
+--
+-- Run this script before deploying, and before any rollup rebuild. Existing
+-- items are backfilled with their product's current cost, the best value
+-- still available. Rows are updated in batches, each committed on its own, so
+-- sales are never blocked for long. Do not wrap the script in a transaction
+-- block: neither the batch commits nor CONCURRENTLY can run inside one.
+
+ALTER TABLE sale_items ADD COLUMN IF NOT EXISTS unit_cost_price NUMERIC(38, 2);
+
+DO $$
+DECLARE
+    updated INTEGER;
+BEGIN
+    LOOP
+        UPDATE sale_items si
+        SET unit_cost_price = p.cost_price
+        FROM products p
+        WHERE p.id = si.product_id
+          AND si.id IN (
+              SELECT pending.id
+              FROM sale_items pending
+              JOIN products cost ON cost.id = pending.product_id
+              WHERE pending.unit_cost_price IS NULL
+                AND cost.cost_price IS NOT NULL
+              LIMIT 10000);
+        GET DIAGNOSTICS updated = ROW_COUNT;
+        EXIT WHEN updated = 0;
+        COMMIT;
+    END LOOP;
+END $$;
+
+-- Replace the sale_id index with one that also carries the quantity and unit
+-- cost. COGS of a date range then reaches the items through the sales date
+-- index (idx_sales_user_date_id) and sums them with index-only scans. The
+-- index keeps its name so ddl-auto does not create the plain one again.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_sale_items_sale_id_cost
+    ON sale_items (sale_id) INCLUDE (quantity, unit_cost_price);
+DROP INDEX CONCURRENTLY IF EXISTS idx_sale_items_sale_id;
+ALTER INDEX idx_sale_items_sale_id_cost RENAME TO idx_sale_items_sale_id;
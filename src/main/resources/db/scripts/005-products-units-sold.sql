@@ -0,0 +1,34 @@
+-- Units sold and last sale time kept on products. Catalog pages ordered by
+-- most or least sold become a plain sort on products instead of joining and
+-- grouping every sale item of the tenant.
+--
+-- Run this script before deploying. The counters are backfilled one tenant at
+-- a time, each committed on its own, so a tenant's sales only wait for its
+-- own backfill. Do not wrap the script in a transaction block: neither the
+-- commits nor CONCURRENTLY can run inside one.
+
+ALTER TABLE products ADD COLUMN IF NOT EXISTS units_sold NUMERIC(38, 2) NOT NULL DEFAULT 0;
+ALTER TABLE products ADD COLUMN IF NOT EXISTS last_sold_at TIMESTAMP(6) WITH TIME ZONE;
+
+DO $$
+DECLARE
+    tenant BIGINT;
+BEGIN
+    FOR tenant IN SELECT DISTINCT user_id FROM products ORDER BY user_id LOOP
+        UPDATE products p
+        SET units_sold = sold.quantity,
+            last_sold_at = sold.last_sold_at
+        FROM (SELECT si.product_id, SUM(si.quantity) AS quantity, MAX(s.sale_date) AS last_sold_at
+              FROM sale_items si
+              JOIN sales s ON s.id = si.sale_id
+              WHERE s.user_id = tenant
+              GROUP BY si.product_id) sold
+        WHERE p.id = sold.product_id;
+        COMMIT;
+    END LOOP;
+END $$;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_user_units_sold ON products (user_id, units_sold);
+
+-- Finds the latest remaining sale of a product when its latest sale is deleted.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_sale_items_product_id ON sale_items (product_id);
@@ -0,0 +1,24 @@
+-- Trigram indexes behind the search box of products, customers and expenses.
+-- The searches match terms anywhere in a column, which a B-tree index cannot
+-- serve; GIN trigram indexes serve both those LIKE predicates and the word
+-- similarity matching enabled by app.search.trigram. The expressions must stay
+-- the same as the ones the searches filter on.
+--
+-- Run this script before enabling app.search.trigram, on new databases too,
+-- once ddl-auto has created the tables. Creating the extension needs a role
+-- allowed to do so. Do not wrap the script in a transaction block:
+-- CONCURRENTLY cannot run inside one.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_name_trgm ON products USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_barcode_trgm ON products USING gin (lower(barcode) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customers_name_trgm ON customers USING gin (lower(name) gin_trgm_ops);
+-- tax IDs and phones are searched by their letters and digits, whatever punctuation they were stored with
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customers_tax_id_code_trgm
+    ON customers USING gin (regexp_replace(tax_id, '[^0-9A-Za-z]', '', 'g') gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customers_phone_code_trgm
+    ON customers USING gin (regexp_replace(phone, '[^0-9A-Za-z]', '', 'g') gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_expenses_name_trgm ON expenses USING gin (lower(name) gin_trgm_ops);
@@ -0,0 +1,143 @@
+package com.flick.business.benchmark;
+
+import com.flick.business.core.entity.Category;
+import com.flick.business.core.entity.Product;
+import com.flick.business.core.entity.Sale;
+import com.flick.business.core.entity.SaleItem;
+import com.flick.business.core.entity.security.User;
+import com.flick.business.core.enums.PaymentMethod;
+import com.flick.business.core.enums.PaymentStatus;
+import com.flick.business.core.enums.UnitOfSale;
+import com.flick.business.core.enums.security.Role;
+import com.flick.business.repository.CategoryRepository;
+import com.flick.business.repository.ProductRepository;
+import com.flick.business.repository.SaleRepository;
+import com.flick.business.repository.security.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures how many sale and sale item rows per second the persistence layer
+ * inserts. Run it once with -Dbenchmark.batch-size=1 (no JDBC batching, the
+ * behaviour of the old IDENTITY mapping) and once with the default to compare.
+ * Point it at a scratch PostgreSQL database with -Dbenchmark.datasource.url,
+ * because the schema is recreated.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Slf4j
+class SaleInsertBenchmarkTest {
+
+    private static final int SALES = Integer.getInteger("benchmark.sales", 2000);
+    private static final int ITEMS_PER_SALE = Integer.getInteger("benchmark.items-per-sale", 10);
+    private static final int SALES_PER_TRANSACTION = 100;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @DynamicPropertySource
+    static void benchmarkProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        registry.add("spring.jpa.properties.hibernate.jdbc.batch_size",
+                () -> System.getProperty("benchmark.batch-size", "50"));
+        registry.add("spring.jpa.properties.hibernate.order_inserts", () -> "true");
+
+        String url = System.getProperty("benchmark.datasource.url");
+        if (url != null) {
+            registry.add("spring.datasource.url", () -> url);
+            registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+            registry.add("spring.datasource.username",
+                    () -> System.getProperty("benchmark.datasource.username", "admin"));
+            registry.add("spring.datasource.password",
+                    () -> System.getProperty("benchmark.datasource.password", ""));
+            registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        }
+    }
+
+    @Test
+    void measureSaleInsertThroughput() {
+        User user = userRepository.save(User.builder()
+                .username("benchmark")
+                .password("benchmark")
+                .role(Role.USER)
+                .build());
+        Category category = new Category();
+        category.setUser(user);
+        category.setName("Benchmark");
+        categoryRepository.save(category);
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < ITEMS_PER_SALE; i++) {
+            products.add(Product.builder()
+                    .user(user)
+                    .category(category)
+                    .name("Benchmark product " + i)
+                    .stockQuantity(new BigDecimal("1000000"))
+                    .salePrice(BigDecimal.TEN)
+                    .unitOfSale(UnitOfSale.UNIT)
+                    .build());
+        }
+        productRepository.saveAll(products);
+
+        long start = System.nanoTime();
+        for (int saved = 0; saved < SALES; saved += SALES_PER_TRANSACTION) {
+            int salesInTransaction = Math.min(SALES_PER_TRANSACTION, SALES - saved);
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < salesInTransaction; i++) {
+                    saleRepository.save(buildSale(user, products));
+                }
+            });
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        long rows = (long) SALES * (ITEMS_PER_SALE + 1);
+        log.info("batch_size={}: {} rows in {} s ({} inserts/s)",
+                System.getProperty("benchmark.batch-size", "50"), rows, String.format("%.2f", seconds),
+                String.format("%.0f", rows / seconds));
+
+        assertThat(saleRepository.count()).isEqualTo(SALES);
+    }
+
+    private Sale buildSale(User user, List<Product> products) {
+        Sale sale = new Sale();
+        sale.setUser(user);
+        sale.setPaymentMethod(PaymentMethod.CASH);
+        sale.setPaymentStatus(PaymentStatus.NOT_APPLICABLE);
+        sale.setSaleDate(ZonedDateTime.now());
+        BigDecimal total = BigDecimal.ZERO;
+        for (Product product : products) {
+            SaleItem item = SaleItem.builder()
+                    .product(product)
+                    .quantity(BigDecimal.ONE)
+                    .unitPrice(product.getSalePrice())
+                    .build();
+            sale.addItem(item);
+            total = total.add(item.getTotalValue());
+        }
+        sale.setTotalValue(total);
+        return sale;
+    }
+}
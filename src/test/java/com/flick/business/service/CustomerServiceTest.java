@@ -43,6 +43,8 @@ class CustomerServiceTest {
     private SaleRepository saleRepository;
     @Mock
     private AuthenticatedUserService authenticatedUserService;
+    @Mock
+    private DataVersionService dataVersionService;
 
     @InjectMocks
     private CustomerService customerService;
@@ -167,4 +169,40 @@ class CustomerServiceTest {
             verify(customerRepository).delete(customer);
         }
     }
+
+    @Nested
+    @DisplayName("Credit Ledger")
+    class CreditLedger {
+
+        @Test
+        @DisplayName("should charge the debt through the guarded update without touching the entity")
+        void chargeCredit_withinLimit_updatesInDatabase() {
+            when(customerRepository.chargeDebtWithinLimit(1L, 1L, new BigDecimal("50.00"))).thenReturn(1);
+
+            customerService.chargeCredit(customer, new BigDecimal("50.00"));
+
+            assertThat(customer.getDebtBalance()).isEqualByComparingTo("0");
+            verify(customerRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("should throw BusinessException when the guarded update rejects the charge")
+        void chargeCredit_whenLimitReachedConcurrently_throwsBusinessException() {
+            when(customerRepository.chargeDebtWithinLimit(1L, 1L, new BigDecimal("50.00"))).thenReturn(0);
+
+            assertThatThrownBy(() -> customerService.chargeCredit(customer, new BigDecimal("50.00")))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("Credit limit exceeded for customer: John Doe");
+        }
+
+        @Test
+        @DisplayName("should reduce the debt in place when a payment is recorded")
+        void reduceDebt_isSuccessful() {
+            when(customerRepository.reduceDebt(1L, 1L, new BigDecimal("30.00"))).thenReturn(1);
+
+            customerService.reduceDebt(customer, new BigDecimal("30.00"));
+
+            verify(customerRepository).reduceDebt(1L, 1L, new BigDecimal("30.00"));
+        }
+    }
 }
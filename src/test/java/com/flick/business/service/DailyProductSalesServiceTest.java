@@ -0,0 +1,77 @@
+package com.flick.business.service;
+
+import com.flick.business.core.entity.Product;
+import com.flick.business.core.entity.Sale;
+import com.flick.business.core.entity.SaleItem;
+import com.flick.business.core.entity.security.User;
+import com.flick.business.repository.DailyProductSalesRepository;
+import com.flick.business.repository.DailySalesSummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Set;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Daily Product Sales Service Tests")
+class DailyProductSalesServiceTest {
+
+    @Mock
+    private DailyProductSalesRepository productSalesRepository;
+    @Mock
+    private DailySalesSummaryRepository summaryRepository;
+
+    private DailyProductSalesService dailyProductSalesService;
+
+    @BeforeEach
+    void setUp() {
+        DailySalesSummaryService summaryService = new DailySalesSummaryService(summaryRepository);
+        ReflectionTestUtils.setField(summaryService, "zoneId", "America/Sao_Paulo");
+        summaryService.initZone();
+        dailyProductSalesService = new DailyProductSalesService(productSalesRepository, summaryService);
+    }
+
+    @Test
+    @DisplayName("should write all items of a sale in one statement, ordered by product, on the local day")
+    void recordSale_writesItemsInProductOrder() {
+        Sale sale = new Sale();
+        sale.setUser(User.builder().id(1L).username("test-user").password("123").build());
+        sale.setSaleDate(ZonedDateTime.parse("2024-03-01T01:30:00Z"));
+        sale.addItem(item(7L, "2", "10.00"));
+        sale.addItem(item(3L, "1.5", "4.00"));
+
+        dailyProductSalesService.recordSale(sale);
+
+        verify(productSalesRepository).addSale(1L, LocalDate.of(2024, 2, 29),
+                new Long[] { 3L, 7L },
+                new BigDecimal[] { new BigDecimal("6.000"), new BigDecimal("20.00") },
+                new BigDecimal[] { new BigDecimal("1.5"), new BigDecimal("2") });
+    }
+
+    @Test
+    @DisplayName("should subtract deleted sales and drop the rows they leave empty")
+    void reverseSales_subtractsThenRemovesEmptyRows() {
+        dailyProductSalesService.reverseSales(Set.of(10L), 1L);
+
+        var inOrder = inOrder(productSalesRepository);
+        inOrder.verify(productSalesRepository).subtractSales(Set.of(10L), 1L, "America/Sao_Paulo");
+        inOrder.verify(productSalesRepository).deleteEmptyRowsOfSales(Set.of(10L), 1L);
+    }
+
+    private SaleItem item(Long productId, String quantity, String unitPrice) {
+        return SaleItem.builder()
+                .product(Product.builder().id(productId).name("Product " + productId).build())
+                .quantity(new BigDecimal(quantity))
+                .unitPrice(new BigDecimal(unitPrice))
+                .build();
+    }
+}
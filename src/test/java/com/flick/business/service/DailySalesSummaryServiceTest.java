@@ -0,0 +1,88 @@
+package com.flick.business.service;
+
+import com.flick.business.core.entity.Expense;
+import com.flick.business.core.entity.Sale;
+import com.flick.business.core.entity.SaleItem;
+import com.flick.business.core.entity.security.User;
+import com.flick.business.core.enums.PaymentMethod;
+import com.flick.business.repository.DailySalesSummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Daily Sales Summary Service Tests")
+class DailySalesSummaryServiceTest {
+
+    @Mock
+    private DailySalesSummaryRepository summaryRepository;
+
+    private DailySalesSummaryService summaryService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        summaryService = new DailySalesSummaryService(summaryRepository);
+        ReflectionTestUtils.setField(summaryService, "zoneId", "America/Sao_Paulo");
+        summaryService.initZone();
+
+        user = User.builder().id(1L).username("test-user").password("123").build();
+    }
+
+    @Test
+    @DisplayName("should key a sale by its local day and add its item quantities")
+    void recordSale_usesLocalDayOfReportingZone() {
+        Sale sale = new Sale();
+        sale.setUser(user);
+        sale.setPaymentMethod(PaymentMethod.CASH);
+        sale.setTotalValue(new BigDecimal("35.00"));
+        // 01:30 UTC is still the previous evening in Sao Paulo
+        sale.setSaleDate(ZonedDateTime.parse("2025-03-02T01:30:00Z"));
+        sale.addItem(SaleItem.builder().quantity(new BigDecimal("2")).unitPrice(new BigDecimal("10.00")).build());
+        sale.addItem(SaleItem.builder().quantity(new BigDecimal("1.5")).unitPrice(new BigDecimal("10.00")).build());
+
+        summaryService.recordSale(sale, new BigDecimal("12.00"));
+
+        verify(summaryRepository).addSales(eq(1L), eq(LocalDate.of(2025, 3, 1)), eq("CASH"),
+                eq(new BigDecimal("35.00")), eq(new BigDecimal("12.00")), eq(1L),
+                argThat(quantity -> quantity.compareTo(new BigDecimal("3.5")) == 0));
+    }
+
+    @Test
+    @DisplayName("should subtract the value of a reversed expense")
+    void reverseExpense_addsNegatedValue() {
+        Expense expense = Expense.builder()
+                .user(user)
+                .value(new BigDecimal("80.00"))
+                .paymentMethod(PaymentMethod.DEBIT)
+                .expenseDate(ZonedDateTime.parse("2025-03-10T15:00:00Z"))
+                .build();
+
+        summaryService.reverseExpense(expense);
+
+        verify(summaryRepository).addExpenses(1L, LocalDate.of(2025, 3, 10), "DEBIT", new BigDecimal("-80.00"));
+    }
+
+    @Test
+    @DisplayName("should subtract deleted sales with one statement in the reporting zone")
+    void reverseSales_delegatesToSetBasedStatement() {
+        summaryService.reverseSales(Set.of(10L, 11L), 1L);
+
+        verify(summaryRepository).subtractSales(Set.of(10L, 11L), 1L, "America/Sao_Paulo");
+        assertThat(summaryService.getZone().getId()).isEqualTo("America/Sao_Paulo");
+    }
+}
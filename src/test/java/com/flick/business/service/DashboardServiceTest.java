@@ -0,0 +1,176 @@
+package com.flick.business.service;
+
+import com.flick.business.api.dto.response.aministration.DashboardResponse;
+import com.flick.business.api.dto.response.common.ChartDataPoint;
+import com.flick.business.repository.DailySalesSummaryRepository;
+import com.flick.business.repository.SaleItemRepository;
+import com.flick.business.service.security.AuthenticatedUserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Dashboard Service Tests")
+class DashboardServiceTest {
+
+    @Mock
+    private SaleItemRepository saleItemRepository;
+    @Mock
+    private DailySalesSummaryRepository summaryRepository;
+    @Mock
+    private AuthenticatedUserService authenticatedUserService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DashboardService dashboardService;
+
+    private final ZonedDateTime start = ZonedDateTime.parse("2025-03-08T00:00:00Z");
+    private final ZonedDateTime end = ZonedDateTime.parse("2025-03-14T23:59:59Z");
+
+    @BeforeEach
+    void setUp() {
+        DailySalesSummaryService summaryService = new DailySalesSummaryService(summaryRepository);
+        ReflectionTestUtils.setField(summaryService, "zoneId", "UTC");
+        summaryService.initZone();
+        dashboardService = new DashboardService(saleItemRepository, summaryRepository, summaryService,
+                authenticatedUserService, transactionManager);
+        ReflectionTestUtils.setField(dashboardService, "deadline", Duration.ofMillis(300));
+        ReflectionTestUtils.setField(dashboardService, "maxConcurrentQueries", 4);
+        dashboardService.initExecution();
+
+        when(authenticatedUserService.getAuthenticatedUserId()).thenReturn(1L);
+    }
+
+    @Test
+    @DisplayName("should build the whole dashboard with one rollup statement and one top products statement")
+    void getDashboardSummary_runsTwoStatements() {
+        when(summaryRepository.summarizeDashboard(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 8),
+                LocalDate.of(2025, 3, 14), 1L)).thenReturn(List.of(
+                        row("DAY", LocalDate.of(2025, 3, 8), null, "300.00", "0", 3, 0, "50.00", "0", "120.00"),
+                        row("DAY", LocalDate.of(2025, 3, 9), null, "0", "0", 0, 0, "0", "0", "120.00"),
+                        row("METHOD", null, "CASH", "200.00", "150.00", 2, 1, "0", "0", "120.00"),
+                        row("METHOD", null, "DEBIT", "0", "50.00", 0, 1, "50.00", "0", "120.00"),
+                        row("METHOD", null, "ON_CREDIT", "100.00", "0", 1, 0, "0", "0", "120.00"),
+                        row("TOTAL", null, null, "300.00", "200.00", 3, 2, "50.00", "20.00", "150.00"),
+                        row("OPENING_RECEIVABLES", LocalDate.of(2025, 3, 2), null, "0", "0", 0, 0, "0", "0",
+                                "100.00"),
+                        row("RECEIVABLES", LocalDate.of(2025, 3, 8), null, "0", "0", 0, 0, "0", "0", "120.00")));
+        when(saleItemRepository.findTop5SellingProductsByRevenue(start, end, 1L))
+                .thenReturn(List.<Object[]>of(new Object[] { "Coffee", new BigDecimal("180.00") }));
+
+        DashboardResponse response = dashboardService.getDashboardSummary(start, end);
+
+        verify(summaryRepository, times(1)).summarizeDashboard(any(), any(), any(), any());
+        verify(saleItemRepository, times(1)).findTop5SellingProductsByRevenue(any(), any(), any());
+        verifyNoMoreInteractions(summaryRepository, saleItemRepository);
+
+        assertThat(response.grossRevenue().value()).isEqualByComparingTo("300.00");
+        assertThat(response.grossRevenue().percentageChange()).isEqualByComparingTo("50");
+        assertThat(response.netProfit().value()).isEqualByComparingTo("250.00");
+        assertThat(response.averageTicket().value()).isEqualByComparingTo("100.00");
+        // the window has ended, so its receivables are the snapshot of its last change
+        assertThat(response.totalReceivables().value()).isEqualByComparingTo("120.00");
+        assertThat(response.totalReceivables().percentageChange()).isEqualByComparingTo("20");
+        assertThat(response.salesByPaymentMethod()).extracting(ChartDataPoint::label)
+                .containsExactly("CASH", "ON_CREDIT");
+        assertThat(response.revenueAndProfitTrend()).hasSize(1);
+        assertThat(response.revenueAndProfitTrend().get(0).date()).isEqualTo("2025-03-08");
+        assertThat(response.revenueAndProfitTrend().get(0).profit()).isEqualByComparingTo("250.00");
+        assertThat(response.revenueAndProfitTrend().get(0).receivables()).isEqualByComparingTo("120.00");
+        assertThat(response.topSellingProducts()).hasSize(1);
+        assertThat(response.staleSections()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should fold a long range into a fixed number of sparkline buckets")
+    void getDashboardSummary_longRange_buildsTwelveBucketSparklines() {
+        ZonedDateTime yearStart = ZonedDateTime.parse("2024-01-01T00:00:00Z");
+        ZonedDateTime yearEnd = ZonedDateTime.parse("2024-12-31T23:59:59Z");
+        when(summaryRepository.summarizeDashboard(any(), any(), any(), any())).thenReturn(List.of(
+                row("DAY", LocalDate.of(2024, 1, 5), null, "100.00", "0", 2, 0, "30.00", "0", "500.00"),
+                row("DAY", LocalDate.of(2024, 12, 30), null, "60.00", "0", 1, 0, "0", "0", "500.00"),
+                row("TOTAL", null, null, "160.00", "0", 3, 0, "30.00", "0", "500.00"),
+                row("OPENING_RECEIVABLES", LocalDate.of(2023, 11, 20), null, "0", "0", 0, 0, "0", "0", "415.00"),
+                row("RECEIVABLES", LocalDate.of(2024, 1, 5), null, "0", "0", 0, 0, "0", "0", "515.00"),
+                row("RECEIVABLES", LocalDate.of(2024, 12, 30), null, "0", "0", 0, 0, "0", "0", "475.00")));
+        when(saleItemRepository.findTop5SellingProductsByRevenue(yearStart, yearEnd, 1L)).thenReturn(List.of());
+
+        DashboardResponse response = dashboardService.getDashboardSummary(yearStart, yearEnd);
+
+        List<BigDecimal> revenue = response.grossRevenue().sparklineData();
+        assertThat(revenue).hasSize(12);
+        assertThat(revenue.get(0)).isEqualByComparingTo("100.00");
+        assertThat(revenue.get(11)).isEqualByComparingTo("60.00");
+        assertThat(response.netProfit().sparklineData().get(0)).isEqualByComparingTo("70.00");
+        assertThat(response.averageTicket().sparklineData().get(0)).isEqualByComparingTo("50.00");
+        assertThat(response.totalExpense().sparklineData()).hasSize(12);
+        List<BigDecimal> receivables = response.totalReceivables().sparklineData();
+        assertThat(receivables.get(11)).isEqualByComparingTo("475.00");
+        assertThat(receivables.get(10)).isEqualByComparingTo("515.00");
+        assertThat(receivables.get(0)).isEqualByComparingTo("515.00");
+        assertThat(response.totalReceivables().value()).isEqualByComparingTo("475.00");
+    }
+
+    @Test
+    @DisplayName("should read today's receivables live and the previous window's from the snapshots")
+    void getDashboardSummary_windowEndingToday_comparesLiveReceivablesWithSnapshot() {
+        ZonedDateTime weekStart = ZonedDateTime.now(ZoneOffset.UTC).minusDays(6);
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        LocalDate previousWindowEnd = weekStart.toLocalDate().minusDays(1);
+        when(summaryRepository.summarizeDashboard(any(), any(), any(), any())).thenReturn(List.of(
+                row("TOTAL", null, null, "0", "0", 0, 0, "0", "0", "90.00"),
+                row("OPENING_RECEIVABLES", previousWindowEnd, null, "0", "0", 0, 0, "0", "0", "60.00")));
+        when(saleItemRepository.findTop5SellingProductsByRevenue(weekStart, now, 1L)).thenReturn(List.of());
+
+        DashboardResponse response = dashboardService.getDashboardSummary(weekStart, now);
+
+        assertThat(response.totalReceivables().value()).isEqualByComparingTo("90.00");
+        assertThat(response.totalReceivables().percentageChange()).isEqualByComparingTo("50");
+        assertThat(response.totalReceivables().sparklineData()).containsOnly(new BigDecimal("60.00"));
+    }
+
+    @Test
+    @DisplayName("should return the ready sections and flag a late one as stale in parallel mode")
+    void getDashboardSummary_parallelWithSlowSection_flagsItAsStale() {
+        ReflectionTestUtils.setField(dashboardService, "parallel", true);
+        when(summaryRepository.summarizeDashboard(any(), any(), any(), any())).thenReturn(List.<Object[]>of(
+                row("TOTAL", null, null, "80.00", "40.00", 2, 1, "0", "0", "0")));
+        when(saleItemRepository.findTop5SellingProductsByRevenue(any(), any(), any())).thenAnswer(inv -> {
+            Thread.sleep(5_000);
+            return List.of();
+        });
+
+        long startedAt = System.nanoTime();
+        DashboardResponse response = dashboardService.getDashboardSummary(start, end);
+        long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+
+        assertThat(elapsedMillis).isLessThan(2_000);
+        assertThat(response.grossRevenue().value()).isEqualByComparingTo("80.00");
+        assertThat(response.topSellingProducts()).isEmpty();
+        assertThat(response.staleSections()).containsExactly("topSellingProducts");
+        dashboardService.shutdownExecution();
+    }
+
+    private static Object[] row(String type, LocalDate day, String method, String currentRevenue,
+            String previousRevenue, long currentCount, long previousCount, String currentExpenses,
+            String previousExpenses, String receivables) {
+        return new Object[] { type, day, method, new BigDecimal(currentRevenue), new BigDecimal(previousRevenue),
+                BigDecimal.valueOf(currentCount), BigDecimal.valueOf(previousCount), new BigDecimal(currentExpenses),
+                new BigDecimal(previousExpenses), new BigDecimal(receivables) };
+    }
+}
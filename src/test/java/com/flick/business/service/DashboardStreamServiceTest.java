@@ -0,0 +1,129 @@
+package com.flick.business.service;
+
+import com.flick.business.core.entity.Product;
+import com.flick.business.core.entity.Sale;
+import com.flick.business.core.entity.SaleItem;
+import com.flick.business.core.entity.security.User;
+import com.flick.business.core.enums.PaymentMethod;
+import com.flick.business.repository.DailySalesSummaryRepository;
+import com.flick.business.repository.SaleItemRepository;
+import com.flick.business.service.security.AuthenticatedUserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Dashboard Stream Service Tests")
+class DashboardStreamServiceTest {
+
+    @Mock
+    private DailySalesSummaryRepository summaryRepository;
+    @Mock
+    private SaleItemRepository saleItemRepository;
+    @Mock
+    private AuthenticatedUserService authenticatedUserService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DashboardStreamService dashboardStreamService;
+
+    @BeforeEach
+    void setUp() {
+        DailySalesSummaryService summaryService = new DailySalesSummaryService(summaryRepository);
+        ReflectionTestUtils.setField(summaryService, "zoneId", "UTC");
+        summaryService.initZone();
+        dashboardStreamService = new DashboardStreamService(summaryRepository, saleItemRepository, summaryService,
+                authenticatedUserService, transactionManager);
+        ReflectionTestUtils.setField(dashboardStreamService, "maxConnectionsPerTenant", 2);
+        ReflectionTestUtils.setField(dashboardStreamService, "timeout", Duration.ofMinutes(1));
+        dashboardStreamService.initExecution();
+
+        when(authenticatedUserService.getAuthenticatedUserId()).thenReturn(1L);
+        when(summaryRepository.sumBetween(any(), any(), eq(1L))).thenReturn(List.<Object[]>of(new Object[] {
+                new BigDecimal("50.00"), BigDecimal.ZERO, 2L, BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.ZERO }));
+        when(saleItemRepository.findTop5SellingProductsByRevenue(any(), any(), eq(1L))).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        dashboardStreamService.shutdownExecution();
+    }
+
+    @Test
+    @DisplayName("should seed a tenant once and apply committed sales without querying")
+    void publishSale_withOpenStreams_runsNoQuery() {
+        dashboardStreamService.subscribe();
+        dashboardStreamService.subscribe();
+
+        dashboardStreamService.publishSale(sale());
+        dashboardStreamService.publishSale(sale());
+        dashboardStreamService.heartbeat();
+
+        verify(summaryRepository, times(1)).sumBetween(any(), any(), any());
+        verify(saleItemRepository, times(1)).findTop5SellingProductsByRevenue(any(), any(), any());
+        verifyNoMoreInteractions(summaryRepository, saleItemRepository);
+    }
+
+    @Test
+    @DisplayName("should load again when a sale commits while the tenant is being seeded")
+    void subscribe_saleDuringSeed_reloadsTotals() {
+        Object[] seeded = { new BigDecimal("50.00"), BigDecimal.ZERO, 2L, BigDecimal.ONE, BigDecimal.ZERO,
+                BigDecimal.ZERO };
+        Object[] reloaded = { new BigDecimal("70.00"), BigDecimal.ZERO, 3L, BigDecimal.ONE, BigDecimal.ZERO,
+                BigDecimal.ZERO };
+        when(summaryRepository.sumBetween(any(), any(), eq(1L)))
+                .thenAnswer(invocation -> {
+                    // the stream is registered already, so this commit reaches it
+                    dashboardStreamService.publishSale(sale());
+                    return List.<Object[]>of(seeded);
+                })
+                .thenReturn(List.<Object[]>of(reloaded));
+
+        dashboardStreamService.subscribe();
+
+        verify(summaryRepository, timeout(1000).times(2)).sumBetween(any(), any(), eq(1L));
+    }
+
+    @Test
+    @DisplayName("should refuse a stream beyond the per-tenant limit")
+    void subscribe_beyondLimit_isRefused() {
+        dashboardStreamService.subscribe();
+        dashboardStreamService.subscribe();
+
+        assertThatThrownBy(() -> dashboardStreamService.subscribe())
+                .isInstanceOf(ResponseStatusException.class)
+                .satisfies(ex -> assertThat(((ResponseStatusException) ex).getStatusCode())
+                        .isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+    }
+
+    private Sale sale() {
+        Sale sale = new Sale();
+        sale.setUser(User.builder().id(1L).username("test-user").password("123").build());
+        sale.setPaymentMethod(PaymentMethod.CASH);
+        sale.setSaleDate(ZonedDateTime.now());
+        sale.setTotalValue(new BigDecimal("20.00"));
+        sale.addItem(SaleItem.builder()
+                .product(Product.builder().id(1L).name("Coffee").build())
+                .quantity(new BigDecimal("2"))
+                .unitPrice(new BigDecimal("10.00"))
+                .build());
+        return sale;
+    }
+}
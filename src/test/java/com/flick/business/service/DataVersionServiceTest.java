@@ -0,0 +1,68 @@
+package com.flick.business.service;
+
+import com.flick.business.service.security.AuthenticatedUserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Data Version Service Tests")
+class DataVersionServiceTest {
+
+    @Mock
+    private AuthenticatedUserService authenticatedUserService;
+
+    private DataVersionService dataVersionService;
+
+    @BeforeEach
+    void setUp() {
+        dataVersionService = new DataVersionService(authenticatedUserService);
+        ReflectionTestUtils.setField(dataVersionService, "cacheSize", 2);
+        ReflectionTestUtils.setField(dataVersionService, "maxAge", Duration.ofHours(1));
+        dataVersionService.initCache();
+        when(authenticatedUserService.getAuthenticatedUserId()).thenReturn(1L);
+    }
+
+    @Test
+    @DisplayName("should keep the same ETag until the tenant's data changes")
+    void etag_changesOnlyAfterBump() {
+        String first = dataVersionService.etag("/api/dashboard/summary?startDate=a");
+        String unchanged = dataVersionService.etag("/api/dashboard/summary?startDate=a");
+
+        dataVersionService.bump();
+        String afterWrite = dataVersionService.etag("/api/dashboard/summary?startDate=a");
+
+        assertThat(unchanged).isEqualTo(first);
+        assertThat(afterWrite).isNotEqualTo(first);
+    }
+
+    @Test
+    @DisplayName("should give different reads different ETags")
+    void etag_dependsOnResource() {
+        assertThat(dataVersionService.etag("/api/reports/financial-summary?startDate=a"))
+                .isNotEqualTo(dataVersionService.etag("/api/reports/financial-summary?startDate=b"));
+    }
+
+    @Test
+    @DisplayName("should never reuse a version for a tenant evicted from memory")
+    void etag_afterEviction_doesNotMatchOldTag() {
+        String before = dataVersionService.etag("/api/sales/gross-total?null");
+
+        for (long otherUser = 2; otherUser <= 3; otherUser++) {
+            when(authenticatedUserService.getAuthenticatedUserId()).thenReturn(otherUser);
+            dataVersionService.etag("/api/sales/gross-total?null");
+        }
+        when(authenticatedUserService.getAuthenticatedUserId()).thenReturn(1L);
+
+        assertThat(dataVersionService.etag("/api/sales/gross-total?null")).isNotEqualTo(before);
+    }
+}
@@ -20,6 +20,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -33,6 +34,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -48,15 +50,21 @@ class ExpenseServiceTest {
     @Mock
     private ProductService productService;
     @Mock
+    private DailySalesSummaryService dailySalesSummaryService;
+    @Mock
+    private ReportCacheService reportCacheService;
+    @Mock
     private AuthenticatedUserService authenticatedUserService;
+    @Mock
+    private DataVersionService dataVersionService;
+    @Mock
+    private DashboardStreamService dashboardStreamService;
 
     @InjectMocks
     private ExpenseService expenseService;
 
     @Captor
     private ArgumentCaptor<Expense> expenseArgumentCaptor;
-    @Captor
-    private ArgumentCaptor<List<Product>> productListArgumentCaptor;
 
     private Product product1;
     private Product product2;
@@ -122,17 +130,15 @@ class ExpenseServiceTest {
             expenseService.create(request);
 
             verify(expenseRepository).save(expenseArgumentCaptor.capture());
-            verify(productRepository).saveAll(productListArgumentCaptor.capture());
+            verify(productRepository).incrementStock(1L, 1L, new BigDecimal("50"));
+            verify(productRepository, never()).saveAll(anyList());
 
             Expense savedExpense = expenseArgumentCaptor.getValue();
             assertThat(savedExpense.getValue()).isEqualByComparingTo("225.00"); // 50 * 4.50
             assertThat(savedExpense.getRestockItems()).hasSize(1);
             assertThat(savedExpense.getName()).isEqualTo("50x Test Product");
             assertThat(savedExpense.getDescription()).isEqualTo("Itens comprados:\n- 50x Test Product");
-
-            Product updatedProduct = productListArgumentCaptor.getValue().get(0);
-            assertThat(updatedProduct.getStockQuantity()).isEqualByComparingTo("60"); // 10 + 50
-            assertThat(updatedProduct.getCostPrice()).isEqualByComparingTo("5.00");
+            assertThat(product1.getCostPrice()).isEqualByComparingTo("5.00");
         }
 
         @Test
@@ -157,6 +163,27 @@ class ExpenseServiceTest {
                     "Itens comprados:\n- 2x Test Product\n- 3x Coffee Beans");
         }
 
+        @Test
+        @DisplayName("should add the restocked quantities in product order, one statement per product")
+        void createExpense_forRestockingExpense_incrementsStockInProductOrder() {
+            RestockItemRequest second = new RestockItemRequest(2L, new BigDecimal("3"), new BigDecimal("19.90"));
+            RestockItemRequest first = new RestockItemRequest(1L, new BigDecimal("2"), new BigDecimal("4.50"));
+            RestockItemRequest firstAgain = new RestockItemRequest(1L, new BigDecimal("4"), new BigDecimal("4.50"));
+            ExpenseRequest request = new ExpenseRequest("Bulk", null, ZonedDateTime.now(),
+                    ExpenseType.RESTOCKING, PaymentMethod.CASH, "Bulk restock", List.of(second, first, firstAgain));
+
+            when(productService.findEntityById(1L)).thenReturn(product1);
+            when(productService.findEntityById(2L)).thenReturn(product2);
+            when(expenseRepository.save(any(Expense.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            expenseService.create(request);
+
+            InOrder inOrder = inOrder(productRepository);
+            inOrder.verify(productRepository).incrementStock(1L, 1L, new BigDecimal("6"));
+            inOrder.verify(productRepository).incrementStock(2L, 1L, new BigDecimal("3"));
+            assertThat(product1.getStockQuantity()).isEqualByComparingTo("10");
+        }
+
         @Test
         @DisplayName("should throw BusinessException for restocking expense with no items")
         void createExpense_restockingWithNoItems_throwsBusinessException() {
@@ -209,7 +236,7 @@ class ExpenseServiceTest {
                 "manual edited description",
                 null);
 
-        when(expenseRepository.findByIdAndUserId(10L, 1L)).thenReturn(Optional.of(existingExpense));
+        when(expenseRepository.lockByIdAndUserId(10L, 1L)).thenReturn(Optional.of(existingExpense));
         when(expenseRepository.save(any(Expense.class))).thenAnswer(inv -> inv.getArgument(0));
 
         expenseService.update(10L, updateRequest);
@@ -220,4 +247,61 @@ class ExpenseServiceTest {
         assertThat(savedExpense.getDescription()).isEqualTo("Itens comprados:\n- 5x Test Product");
         assertThat(savedExpense.getValue()).isEqualByComparingTo("22.50");
     }
+
+    @Test
+    @DisplayName("should move an updated expense in the daily summary")
+    void updateExpense_reversesOldValuesBeforeRecordingNewOnes() {
+        Expense existingExpense = Expense.builder()
+                .id(11L)
+                .user(user)
+                .name("Rent")
+                .value(new BigDecimal("100.00"))
+                .expenseType(ExpenseType.BUSINESS)
+                .paymentMethod(PaymentMethod.CASH)
+                .expenseDate(ZonedDateTime.now())
+                .build();
+        ExpenseRequest updateRequest = new ExpenseRequest("Rent", new BigDecimal("150.00"), ZonedDateTime.now(),
+                ExpenseType.BUSINESS, PaymentMethod.DEBIT, null, null);
+        BigDecimal[] reversedValue = new BigDecimal[1];
+
+        when(expenseRepository.lockByIdAndUserId(11L, 1L)).thenReturn(Optional.of(existingExpense));
+        doAnswer(inv -> reversedValue[0] = ((Expense) inv.getArgument(0)).getValue())
+                .when(dailySalesSummaryService).reverseExpense(existingExpense);
+        doAnswer(inv -> {
+            Expense target = inv.getArgument(1);
+            target.setValue(updateRequest.value());
+            target.setPaymentMethod(updateRequest.paymentMethod());
+            return null;
+        }).when(expenseMapper).updateEntityFromRequest(updateRequest, existingExpense);
+        when(expenseRepository.save(any(Expense.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        expenseService.update(11L, updateRequest);
+
+        var inOrder = inOrder(dailySalesSummaryService, expenseMapper, expenseRepository);
+        inOrder.verify(dailySalesSummaryService).reverseExpense(existingExpense);
+        inOrder.verify(expenseMapper).updateEntityFromRequest(updateRequest, existingExpense);
+        inOrder.verify(expenseRepository).save(existingExpense);
+        inOrder.verify(dailySalesSummaryService).recordExpense(existingExpense);
+        assertThat(reversedValue[0]).isEqualByComparingTo("100.00");
+        assertThat(existingExpense.getPaymentMethod()).isEqualTo(PaymentMethod.DEBIT);
+    }
+
+    @Test
+    @DisplayName("should remove a deleted expense from the daily summary")
+    void deleteExpense_reversesDailySummary() {
+        Expense expense = Expense.builder()
+                .id(12L)
+                .user(user)
+                .value(new BigDecimal("40.00"))
+                .paymentMethod(PaymentMethod.CASH)
+                .expenseDate(ZonedDateTime.now())
+                .build();
+        when(expenseRepository.lockByIdAndUserId(12L, 1L)).thenReturn(Optional.of(expense));
+
+        expenseService.deleteById(12L);
+
+        var inOrder = inOrder(dailySalesSummaryService, expenseRepository);
+        inOrder.verify(dailySalesSummaryService).reverseExpense(expense);
+        inOrder.verify(expenseRepository).delete(expense);
+    }
 }
@@ -0,0 +1,89 @@
+package com.flick.business.service;
+
+import com.flick.business.api.dto.request.settings.GeneralSettingsRequest;
+import com.flick.business.api.mapper.GeneralSettingsMapper;
+import com.flick.business.core.entity.GeneralSettings;
+import com.flick.business.core.enums.settings.StockControlType;
+import com.flick.business.repository.GeneralSettingsRepository;
+import com.flick.business.service.security.AuthenticatedUserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("General Settings Service Tests")
+class GeneralSettingsServiceTest {
+
+    @Mock
+    private AuthenticatedUserService authenticatedUserService;
+    @Mock
+    private GeneralSettingsRepository settingsRepository;
+    @Mock
+    private GeneralSettingsMapper settingsMapper;
+
+    private GeneralSettingsService settingsService;
+    private GeneralSettings settings;
+
+    @BeforeEach
+    void setUp() {
+        settingsService = new GeneralSettingsService(authenticatedUserService, settingsRepository, settingsMapper);
+        ReflectionTestUtils.setField(settingsService, "cacheSize", 100);
+        ReflectionTestUtils.setField(settingsService, "cacheTtl", Duration.ofMinutes(5));
+        settingsService.initCache();
+
+        settings = new GeneralSettings();
+        settings.setId(1L);
+        settings.setStockControlType(StockControlType.GLOBAL);
+        lenient().when(authenticatedUserService.getAuthenticatedUserId()).thenReturn(1L);
+    }
+
+    @Test
+    @DisplayName("should read the stock control type from the database only once")
+    void getStockControlType_repeatedCalls_hitsDatabaseOnce() {
+        when(settingsRepository.findByUserId(1L)).thenReturn(Optional.of(settings));
+
+        assertThat(settingsService.getStockControlType()).isEqualTo(StockControlType.GLOBAL);
+        assertThat(settingsService.getStockControlType()).isEqualTo(StockControlType.GLOBAL);
+
+        verify(settingsRepository, times(1)).findByUserId(1L);
+    }
+
+    @Test
+    @DisplayName("should reload the stock control type after an update")
+    void update_evictsCachedStockControlType() {
+        when(settingsRepository.findByUserId(1L)).thenReturn(Optional.of(settings));
+        when(settingsRepository.save(any(GeneralSettings.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        doAnswer(invocation -> {
+            settings.setStockControlType(StockControlType.NONE);
+            return null;
+        }).when(settingsMapper).updateEntityFromRequest(any(), any());
+
+        settingsService.getStockControlType();
+        settingsService.update(new GeneralSettingsRequest(StockControlType.NONE, null, null));
+
+        assertThat(settingsService.getStockControlType()).isEqualTo(StockControlType.NONE);
+    }
+
+    @Test
+    @DisplayName("should create the default settings row without a read-then-save race")
+    void findEntity_missingRow_insertsDefaultIfAbsent() {
+        when(settingsRepository.findByUserId(1L)).thenReturn(Optional.empty(), Optional.of(settings));
+
+        GeneralSettings result = settingsService.findEntity();
+
+        assertThat(result).isSameAs(settings);
+        verify(settingsRepository).insertDefaultIfAbsent(1L, "PER_ITEM");
+        verify(settingsRepository, never()).save(any());
+    }
+}
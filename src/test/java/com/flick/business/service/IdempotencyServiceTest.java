@@ -0,0 +1,133 @@
+package com.flick.business.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flick.business.core.entity.IdempotencyRecord;
+import com.flick.business.core.entity.security.User;
+import com.flick.business.exception.BusinessException;
+import com.flick.business.repository.IdempotencyRecordRepository;
+import com.flick.business.service.security.AuthenticatedUserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Idempotency Service Tests")
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    @Mock
+    private AuthenticatedUserService authenticatedUserService;
+
+    private IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(idempotencyRecordRepository, authenticatedUserService,
+                objectMapper);
+        ReflectionTestUtils.setField(idempotencyService, "ttl", Duration.ofHours(24));
+        ReflectionTestUtils.setField(idempotencyService, "cacheSize", 100);
+        idempotencyService.initCache();
+
+        User user = User.builder().id(1L).username("test-user").password("123").build();
+        lenient().when(authenticatedUserService.getAuthenticatedUser()).thenReturn(user);
+    }
+
+    @Test
+    @DisplayName("should run the action directly when no key is sent")
+    void execute_withoutKey_runsAction() {
+        String result = idempotencyService.execute("sale", null, Map.of("a", 1), String.class, () -> "created");
+
+        assertThat(result).isEqualTo("created");
+        verifyNoInteractions(idempotencyRecordRepository);
+    }
+
+    @Test
+    @DisplayName("should run the action once and replay the stored response on retry")
+    void execute_retryWithSameKey_replaysWithoutRunningAgain() {
+        AtomicInteger executions = new AtomicInteger();
+        when(idempotencyRecordRepository.findByUserIdAndScopeAndIdempotencyKey(1L, "sale", "key-1"))
+                .thenReturn(Optional.empty());
+
+        String first = idempotencyService.execute("sale", "key-1", Map.of("a", 1), String.class,
+                () -> "created-" + executions.incrementAndGet());
+        String retry = idempotencyService.execute("sale", "key-1", Map.of("a", 1), String.class,
+                () -> "created-" + executions.incrementAndGet());
+
+        assertThat(first).isEqualTo("created-1");
+        assertThat(retry).isEqualTo("created-1");
+        assertThat(executions).hasValue(1);
+        verify(idempotencyRecordRepository, times(1)).saveAndFlush(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    @DisplayName("should replay a response stored by another node")
+    void execute_keyStoredInDatabase_replaysStoredResponse() {
+        ArgumentCaptor<IdempotencyRecord> captor = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        IdempotencyService otherNode = new IdempotencyService(idempotencyRecordRepository, authenticatedUserService,
+                objectMapper);
+        ReflectionTestUtils.setField(otherNode, "ttl", Duration.ofHours(24));
+        ReflectionTestUtils.setField(otherNode, "cacheSize", 100);
+        otherNode.initCache();
+        when(idempotencyRecordRepository.findByUserIdAndScopeAndIdempotencyKey(1L, "sale", "key-1"))
+                .thenReturn(Optional.empty());
+        otherNode.execute("sale", "key-1", Map.of("a", 1), String.class, () -> "created");
+        verify(idempotencyRecordRepository).saveAndFlush(captor.capture());
+        when(idempotencyRecordRepository.findByUserIdAndScopeAndIdempotencyKey(1L, "sale", "key-1"))
+                .thenReturn(Optional.of(captor.getValue()));
+
+        String retry = idempotencyService.execute("sale", "key-1", Map.of("a", 1), String.class,
+                () -> "created-again");
+
+        assertThat(retry).isEqualTo("created");
+    }
+
+    @Test
+    @DisplayName("should reject a key reused with a different request body")
+    void execute_sameKeyDifferentBody_throwsBusinessException() {
+        when(idempotencyRecordRepository.findByUserIdAndScopeAndIdempotencyKey(1L, "sale", "key-1"))
+                .thenReturn(Optional.empty());
+        idempotencyService.execute("sale", "key-1", Map.of("a", 1), String.class, () -> "created");
+
+        assertThatThrownBy(() -> idempotencyService.execute("sale", "key-1", Map.of("a", 2), String.class,
+                () -> "created"))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("different request");
+    }
+
+    @Test
+    @DisplayName("should run the action again once the stored key has expired")
+    void execute_expiredKey_runsActionAgain() {
+        IdempotencyRecord expired = IdempotencyRecord.builder()
+                .scope("sale")
+                .idempotencyKey("key-1")
+                .requestHash("irrelevant")
+                .responseBody("\"old\"")
+                .expiresAt(ZonedDateTime.now().minusMinutes(1))
+                .build();
+        when(idempotencyRecordRepository.findByUserIdAndScopeAndIdempotencyKey(1L, "sale", "key-1"))
+                .thenReturn(Optional.of(expired));
+
+        String result = idempotencyService.execute("sale", "key-1", Map.of("a", 1), String.class, () -> "new");
+
+        assertThat(result).isEqualTo("new");
+        verify(idempotencyRecordRepository).delete(expired);
+    }
+}
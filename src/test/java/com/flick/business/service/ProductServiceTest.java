@@ -10,7 +10,6 @@ import com.flick.business.core.entity.security.User;
 import com.flick.business.core.enums.UnitOfSale;
 import com.flick.business.exception.ResourceNotFoundException;
 import com.flick.business.repository.ProductRepository;
-import com.flick.business.repository.SaleItemRepository;
 import com.flick.business.service.security.AuthenticatedUserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -50,7 +49,9 @@ class ProductServiceTest {
     @Mock
     private ProviderService providerService;
     @Mock
-    private SaleItemRepository saleItemRepository;
+    private ReportCacheService reportCacheService;
+    @Mock
+    private DataVersionService dataVersionService;
     @Mock
     private AuthenticatedUserService authenticatedUserService;
 
@@ -155,6 +156,22 @@ class ProductServiceTest {
 
             verify(productMapper).updateEntityFromRequest(eq(productRequest), eq(product), eq(category), eq(provider));
             verify(productRepository).save(product);
+            verify(dataVersionService).bump();
+        }
+
+        @Test
+        @DisplayName("should replace the stock in place only when the update changes it")
+        void update_withUnchangedStock_leavesStockToConcurrentSales() {
+            when(productRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(product));
+            when(categoryService.findEntityById(1L)).thenReturn(category);
+            when(providerService.findById(1L)).thenReturn(provider);
+            when(productRepository.save(any(Product.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            productService.update(1L, productRequest);
+            product.setStockQuantity(new BigDecimal("200"));
+            productService.update(1L, productRequest);
+
+            verify(productRepository, times(1)).overwriteStock(1L, 1L, new BigDecimal("200"));
         }
     }
 
@@ -204,15 +221,32 @@ class ProductServiceTest {
         }
 
         @Test
-        @DisplayName("should call 'findAllByMostSold' when orderBy is 'mostSold'")
-        void listProducts_whenOrderByMostSold_callsCorrectRepositoryMethod() {
-            // Mocking the Paginated result
-            Page<Product> emptyPage = Page.empty();
-            when(productRepository.findAllByMostSold(any(), any(), anyLong(), any(Pageable.class))).thenReturn(emptyPage);
+        @DisplayName("should sort by the units sold kept on the product when orderBy is 'mostSold'")
+        void listProducts_whenOrderByMostSold_sortsByUnitsSold() {
+            when(productRepository.findAll(any(Specification.class), any(Pageable.class)))
+                    .thenReturn(Page.empty());
 
             productService.listProducts("Soda", 1L, "mostSold", 0, 10);
 
-            verify(productRepository).findAllByMostSold(eq("Soda"), eq(1L), eq(1L), any(Pageable.class));
+            verify(productRepository).findAll(any(Specification.class), pageableArgumentCaptor.capture());
+            Sort sort = pageableArgumentCaptor.getValue().getSort();
+            assertThat(sort.getOrderFor("unitsSold").getDirection()).isEqualTo(Sort.Direction.DESC);
+            assertThat(sort.getOrderFor("id").getDirection()).isEqualTo(Sort.Direction.ASC);
+        }
+
+        @Test
+        @DisplayName("should leave a search without orderBy unsorted, so the specification ranks by relevance")
+        void listProducts_whenSearchingWithoutOrderBy_leavesSortToRelevance() {
+            when(productRepository.findAll(any(Specification.class), any(Pageable.class)))
+                    .thenReturn(Page.empty());
+
+            productService.listProducts("Soda", null, null, 0, 10);
+            productService.listProducts(null, null, null, 0, 10);
+
+            verify(productRepository, times(2)).findAll(any(Specification.class), pageableArgumentCaptor.capture());
+            assertThat(pageableArgumentCaptor.getAllValues().get(0).getSort().isUnsorted()).isTrue();
+            assertThat(pageableArgumentCaptor.getAllValues().get(1).getSort().getOrderFor("name").getDirection())
+                    .isEqualTo(Sort.Direction.ASC);
         }
     }
 
@@ -284,6 +318,7 @@ class ProductServiceTest {
 
             verify(productRepository).save(productArgumentCaptor.capture());
             assertThat(productArgumentCaptor.getValue().isActive()).isFalse();
+            verify(dataVersionService).bump();
         }
 
         @Test
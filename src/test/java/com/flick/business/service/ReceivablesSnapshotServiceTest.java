@@ -0,0 +1,94 @@
+package com.flick.business.service;
+
+import com.flick.business.core.entity.Customer;
+import com.flick.business.core.entity.Payment;
+import com.flick.business.core.entity.Sale;
+import com.flick.business.core.entity.security.User;
+import com.flick.business.core.enums.PaymentMethod;
+import com.flick.business.repository.DailySalesSummaryRepository;
+import com.flick.business.repository.ReceivablesSnapshotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Receivables Snapshot Service Tests")
+class ReceivablesSnapshotServiceTest {
+
+    @Mock
+    private ReceivablesSnapshotRepository snapshotRepository;
+    @Mock
+    private DailySalesSummaryRepository summaryRepository;
+
+    private ReceivablesSnapshotService snapshotService;
+    private User user;
+    private Customer customer;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        DailySalesSummaryService summaryService = new DailySalesSummaryService(summaryRepository);
+        ReflectionTestUtils.setField(summaryService, "zoneId", "America/Sao_Paulo");
+        summaryService.initZone();
+        snapshotService = new ReceivablesSnapshotService(snapshotRepository, summaryService);
+
+        user = User.builder().id(1L).username("test-user").password("123").build();
+        customer = new Customer();
+        customer.setUser(user);
+        today = LocalDate.now(ZoneId.of("America/Sao_Paulo"));
+    }
+
+    @Test
+    @DisplayName("should add a credit sale to today's balance")
+    void recordSale_onCredit_addsTotalToday() {
+        Sale sale = sale(PaymentMethod.ON_CREDIT);
+
+        snapshotService.recordSale(sale);
+
+        verify(snapshotRepository).addChange(1L, today, new BigDecimal("80.00"));
+    }
+
+    @Test
+    @DisplayName("should leave the balance alone for sales not made on credit")
+    void recordSale_notOnCredit_writesNothing() {
+        snapshotService.recordSale(sale(PaymentMethod.CASH));
+
+        verify(snapshotRepository, never()).addChange(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("should take a payment off today's balance")
+    void recordPayment_subtractsAmountToday() {
+        Payment payment = Payment.builder()
+                .customer(customer)
+                .amountPaid(new BigDecimal("30.00"))
+                .paymentMethod(PaymentMethod.CASH)
+                .build();
+
+        snapshotService.recordPayment(payment);
+
+        verify(snapshotRepository).addChange(eq(1L), eq(today), argThat(amount -> amount.compareTo(
+                new BigDecimal("-30.00")) == 0));
+    }
+
+    private Sale sale(PaymentMethod paymentMethod) {
+        Sale sale = new Sale();
+        sale.setUser(user);
+        sale.setCustomer(customer);
+        sale.setPaymentMethod(paymentMethod);
+        sale.setTotalValue(new BigDecimal("80.00"));
+        return sale;
+    }
+}
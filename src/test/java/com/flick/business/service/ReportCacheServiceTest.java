@@ -0,0 +1,97 @@
+package com.flick.business.service;
+
+import com.flick.business.core.enums.ReportType;
+import com.flick.business.repository.DailySalesSummaryRepository;
+import com.flick.business.repository.SaleRepository;
+import com.flick.business.service.security.AuthenticatedUserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Report Cache Service Tests")
+class ReportCacheServiceTest {
+
+    @Mock
+    private SaleRepository saleRepository;
+    @Mock
+    private DailySalesSummaryRepository summaryRepository;
+    @Mock
+    private AuthenticatedUserService authenticatedUserService;
+
+    private ReportCacheService reportCacheService;
+
+    private final ZonedDateTime start = ZonedDateTime.parse("2024-01-01T00:00:00Z");
+    private final ZonedDateTime end = ZonedDateTime.parse("2024-01-31T23:59:59Z");
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        DailySalesSummaryService summaryService = new DailySalesSummaryService(summaryRepository);
+        ReflectionTestUtils.setField(summaryService, "zoneId", "UTC");
+        summaryService.initZone();
+        reportCacheService = new ReportCacheService(saleRepository, summaryService, authenticatedUserService);
+        ReflectionTestUtils.setField(reportCacheService, "cacheSize", 10);
+        reportCacheService.initCache();
+
+        lenient().when(authenticatedUserService.getAuthenticatedUserId()).thenReturn(1L);
+    }
+
+    @Test
+    @DisplayName("should keep a closed range until a write touches a day inside it")
+    void get_closedRange_isEvictedOnlyByWritesInsideIt() {
+        load(start, end);
+        load(start, end);
+        reportCacheService.evictDay(1L, ZonedDateTime.parse("2024-02-10T12:00:00Z"));
+        reportCacheService.evictDay(2L, ZonedDateTime.parse("2024-01-10T12:00:00Z"));
+        load(start, end);
+        assertThat(loads).hasValue(1);
+
+        reportCacheService.evictDay(1L, ZonedDateTime.parse("2024-01-10T12:00:00Z"));
+        load(start, end);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("should always compute a range that includes today")
+    void get_rangeEndingToday_isNotCached() {
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+
+        load(start, now);
+        load(start, now);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("should evict the ranges holding the days of deleted sales")
+    void evictSales_evictsRangesBetweenTheirDates() {
+        when(saleRepository.findSaleDateRange(Set.of(10L, 11L), 1L)).thenReturn(List.<Object[]>of(new Object[] {
+                ZonedDateTime.parse("2023-12-20T10:00:00Z"), ZonedDateTime.parse("2024-01-02T10:00:00Z") }));
+        load(start, end);
+
+        reportCacheService.evictSales(Set.of(10L, 11L), 1L);
+        load(start, end);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private String load(ZonedDateTime startDate, ZonedDateTime endDate) {
+        return reportCacheService.get(ReportType.FINANCIAL_SUMMARY, startDate, endDate,
+                () -> "summary-" + loads.incrementAndGet());
+    }
+}
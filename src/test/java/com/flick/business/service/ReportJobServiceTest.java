@@ -0,0 +1,122 @@
+package com.flick.business.service;
+
+import com.flick.business.api.dto.request.reports.ReportJobRequest;
+import com.flick.business.api.dto.response.reports.FinancialSummaryResponse;
+import com.flick.business.api.dto.response.reports.ReportJobResponse;
+import com.flick.business.core.enums.ReportJobStatus;
+import com.flick.business.core.enums.ReportType;
+import com.flick.business.exception.ResourceNotFoundException;
+import com.flick.business.service.security.AuthenticatedUserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Report Job Service Tests")
+class ReportJobServiceTest {
+
+    @Mock
+    private ReportService reportService;
+    @Mock
+    private AuthenticatedUserService authenticatedUserService;
+
+    private ReportJobService reportJobService;
+
+    private final ZonedDateTime start = ZonedDateTime.parse("2024-01-01T00:00:00Z");
+    private final ZonedDateTime end = ZonedDateTime.parse("2024-12-31T23:59:59Z");
+    private final FinancialSummaryResponse summary = new FinancialSummaryResponse(new BigDecimal("100.00"),
+            BigDecimal.ZERO, BigDecimal.ZERO, new BigDecimal("100.00"), new BigDecimal("100.00"),
+            new BigDecimal("100.00"), new BigDecimal("100"), new BigDecimal("100"), new BigDecimal("100"));
+
+    @BeforeEach
+    void setUp() {
+        reportJobService = new ReportJobService(reportService, authenticatedUserService);
+        ReflectionTestUtils.setField(reportJobService, "threads", 1);
+        ReflectionTestUtils.setField(reportJobService, "queueCapacity", 10);
+        ReflectionTestUtils.setField(reportJobService, "resultTtl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(reportJobService, "maxStored", 100);
+        reportJobService.initExecution();
+
+        when(authenticatedUserService.getAuthenticatedUserId()).thenReturn(1L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reportJobService.shutdownExecution();
+    }
+
+    @Test
+    @DisplayName("should run identical unfinished requests as one job and keep its result")
+    void submit_identicalPendingRequests_shareOneJob() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(reportService.getFinancialSummary(start, end)).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return summary;
+        });
+        ReportJobRequest request = new ReportJobRequest(ReportType.FINANCIAL_SUMMARY, start, end, null, null, null);
+
+        ReportJobResponse first = reportJobService.submit(request);
+        ReportJobResponse second = reportJobService.submit(request);
+        release.countDown();
+
+        assertThat(second.id()).isEqualTo(first.id());
+        ReportJobResponse finished = awaitFinished(first.id());
+        assertThat(finished.status()).isEqualTo(ReportJobStatus.COMPLETED);
+        assertThat(finished.result()).isEqualTo(summary);
+        verify(reportService, times(1)).getFinancialSummary(start, end);
+    }
+
+    @Test
+    @DisplayName("should report why a job failed without exposing unexpected errors")
+    void run_whenReportFails_exposesShortError() throws Exception {
+        when(reportService.getFinancialSummary(start, end)).thenThrow(new IllegalStateException("connection reset"));
+
+        ReportJobResponse job = awaitFinished(reportJobService.submit(
+                new ReportJobRequest(ReportType.FINANCIAL_SUMMARY, start, end, null, null, null)).id());
+
+        assertThat(job.status()).isEqualTo(ReportJobStatus.FAILED);
+        assertThat(job.error()).isEqualTo(ReportJobService.GENERIC_FAILURE);
+        assertThat(job.result()).isNull();
+    }
+
+    @Test
+    @DisplayName("should not show a job to another tenant")
+    void findById_ofAnotherTenant_isNotFound() throws Exception {
+        when(reportService.getFinancialSummary(start, end)).thenReturn(summary);
+        ReportJobResponse job = reportJobService.submit(
+                new ReportJobRequest(ReportType.FINANCIAL_SUMMARY, start, end, null, null, null));
+        awaitFinished(job.id());
+
+        when(authenticatedUserService.getAuthenticatedUserId()).thenReturn(2L);
+
+        assertThatThrownBy(() -> reportJobService.findById(job.id()))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Report job not found with ID: " + job.id());
+    }
+
+    private ReportJobResponse awaitFinished(String id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        ReportJobResponse job = reportJobService.findById(id);
+        while ((job.status() == ReportJobStatus.PENDING || job.status() == ReportJobStatus.RUNNING)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            job = reportJobService.findById(id);
+        }
+        return job;
+    }
+}
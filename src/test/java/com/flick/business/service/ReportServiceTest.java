@@ -0,0 +1,126 @@
+package com.flick.business.service;
+
+import com.flick.business.api.dto.response.aministration.reports.AbcAnalysisResponse;
+import com.flick.business.api.dto.response.common.PageResponse;
+import com.flick.business.api.dto.response.reports.FinancialBreakdownResponse;
+import com.flick.business.api.dto.response.reports.FinancialPeriodResponse;
+import com.flick.business.core.enums.ReportType;
+import com.flick.business.exception.BusinessException;
+import com.flick.business.repository.DailyProductSalesRepository;
+import com.flick.business.repository.DailySalesSummaryRepository;
+import com.flick.business.service.security.AuthenticatedUserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Report Service Tests")
+class ReportServiceTest {
+
+    @Mock
+    private DailySalesSummaryRepository summaryRepository;
+    @Mock
+    private DailyProductSalesRepository productSalesRepository;
+    @Mock
+    private AuthenticatedUserService authenticatedUserService;
+    @Mock
+    private ReportCacheService reportCacheService;
+
+    private ReportService reportService;
+
+    private final ZonedDateTime start = ZonedDateTime.parse("2024-01-01T00:00:00Z");
+    private final ZonedDateTime end = ZonedDateTime.parse("2024-01-31T23:59:59Z");
+    private final LocalDate startDay = LocalDate.of(2024, 1, 1);
+    private final LocalDate endDay = LocalDate.of(2024, 1, 31);
+
+    @BeforeEach
+    void setUp() {
+        DailySalesSummaryService summaryService = new DailySalesSummaryService(summaryRepository);
+        ReflectionTestUtils.setField(summaryService, "zoneId", "UTC");
+        summaryService.initZone();
+        reportService = new ReportService(summaryRepository, productSalesRepository, summaryService,
+                authenticatedUserService, reportCacheService);
+
+        lenient().when(authenticatedUserService.getAuthenticatedUserId()).thenReturn(1L);
+        lenient().when(reportCacheService.get(eq(ReportType.ABC_ANALYSIS), any(), any(), any(), any()))
+                .thenAnswer(inv -> ((Supplier<?>) inv.getArgument(4)).get());
+    }
+
+    @Test
+    @DisplayName("should break a range into months from one query, filling months without activity")
+    void getFinancialBreakdown_byMonth_fillsEmptyMonths() {
+        ZonedDateTime rangeStart = ZonedDateTime.parse("2024-01-15T00:00:00Z");
+        ZonedDateTime rangeEnd = ZonedDateTime.parse("2024-03-10T23:59:59Z");
+        when(reportCacheService.get(eq(ReportType.FINANCIAL_SUMMARY), any(), any(), any(), any()))
+                .thenAnswer(inv -> ((Supplier<?>) inv.getArgument(4)).get());
+        when(summaryRepository.sumByPeriod("month", LocalDate.of(2024, 1, 15), LocalDate.of(2024, 3, 10), 1L))
+                .thenReturn(List.<Object[]>of(
+                        new Object[] { LocalDate.of(2024, 1, 1), new BigDecimal("100.00"), new BigDecimal("40.00"),
+                                new BigDecimal("10.00") },
+                        new Object[] { java.sql.Date.valueOf("2024-03-01"), new BigDecimal("50.00"),
+                                new BigDecimal("20.00"), BigDecimal.ZERO }));
+
+        FinancialBreakdownResponse breakdown = reportService.getFinancialBreakdown(rangeStart, rangeEnd, "month");
+
+        assertThat(breakdown.periods()).extracting(FinancialPeriodResponse::periodStart).containsExactly(
+                LocalDate.of(2024, 1, 15), LocalDate.of(2024, 2, 1), LocalDate.of(2024, 3, 1));
+        assertThat(breakdown.periods().get(2).periodEnd()).isEqualTo(LocalDate.of(2024, 3, 10));
+        assertThat(breakdown.periods().get(1).summary().totalRevenue()).isEqualByComparingTo("0");
+        assertThat(breakdown.periods().get(0).summary().netProfit()).isEqualByComparingTo("50.00");
+        assertThat(breakdown.total().totalRevenue()).isEqualByComparingTo("150.00");
+        assertThat(breakdown.total().grossProfit()).isEqualByComparingTo("90.00");
+        verify(summaryRepository, times(1)).sumByPeriod(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("should read one page of a class and take the total from the page itself")
+    void getAbcAnalisys_withClassFilter_readsOnePage() {
+        when(productSalesRepository.findAbcPage(startDay, endDay, 1L, "B", 2, 2L)).thenReturn(List.<Object[]>of(
+                new Object[] { 4L, "Tea", new BigDecimal("30.00"), new BigDecimal("10.5"), new BigDecimal("88.2"),
+                        "B", 5L }));
+
+        PageResponse<AbcAnalysisResponse> page = reportService.getAbcAnalisys(start, end, "b", 1, 2);
+
+        assertThat(page.getContent()).containsExactly(
+                new AbcAnalysisResponse(4L, "Tea", new BigDecimal("30.00"), 10.5, 88.2, "B"));
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        assertThat(page.getTotalPages()).isEqualTo(3);
+        verify(productSalesRepository, never()).countAbc(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("should count the products when a page lies past the last one")
+    void getAbcAnalisys_pastLastPage_countsProducts() {
+        when(productSalesRepository.findAbcPage(startDay, endDay, 1L, null, 50, 500L)).thenReturn(List.of());
+        when(productSalesRepository.countAbc(startDay, endDay, 1L, null)).thenReturn(120L);
+
+        PageResponse<AbcAnalysisResponse> page = reportService.getAbcAnalisys(start, end, null, 10,
+                ReportService.DEFAULT_ABC_PAGE_SIZE);
+
+        assertThat(page.getContent()).isEmpty();
+        assertThat(page.getTotalElements()).isEqualTo(120);
+    }
+
+    @Test
+    @DisplayName("should refuse an unknown ABC class")
+    void getAbcAnalisys_withUnknownClass_throwsBusinessException() {
+        assertThatThrownBy(() -> reportService.getAbcAnalisys(start, end, "D", 0, 10))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Invalid ABC class: D");
+        verifyNoInteractions(productSalesRepository);
+    }
+}
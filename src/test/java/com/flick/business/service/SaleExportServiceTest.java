@@ -0,0 +1,159 @@
+package com.flick.business.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.flick.business.core.enums.PaymentMethod;
+import com.flick.business.core.enums.PaymentStatus;
+import com.flick.business.exception.BusinessException;
+import com.flick.business.repository.SaleRepository;
+import com.flick.business.service.security.AuthenticatedUserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Sale Export Service Tests")
+class SaleExportServiceTest {
+
+    @Mock
+    private SaleRepository saleRepository;
+    @Mock
+    private AuthenticatedUserService authenticatedUserService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SaleExportService saleExportService;
+
+    private final ZonedDateTime saleDate = ZonedDateTime.parse("2025-01-10T12:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        saleExportService = new SaleExportService(saleRepository, authenticatedUserService, transactionManager,
+                objectMapper);
+        lenient().when(authenticatedUserService.getAuthenticatedUserId()).thenReturn(1L);
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    private Object[] row(long saleId, long itemId, String productName, String quantity) {
+        return new Object[] { saleId, saleDate, PaymentMethod.CASH, PaymentStatus.NOT_APPLICABLE,
+                new BigDecimal("30.00"), 5L, "Jane, \"JJ\"", "=cmd", itemId, 1L, productName,
+                new BigDecimal(quantity), new BigDecimal("10.00") };
+    }
+
+    private String export(SaleExportService.ExportFormat format) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        saleExportService.export(null, null, null, "cash", null, null, format).writeTo(output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("should write one NDJSON line per sale with its items")
+    void export_ndjson_groupsItemsBySale() throws Exception {
+        when(saleRepository.streamExportRows(any(), any(), eq(1L), isNull(), eq(PaymentMethod.CASH), isNull(),
+                isNull())).thenReturn(Stream.of(row(10L, 100L, "Coffee", "1"), row(10L, 101L, "Milk", "2"),
+                        row(11L, 102L, "Coffee", "3")));
+
+        String[] lines = export(SaleExportService.ExportFormat.NDJSON).split("\n");
+
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"id\":10").contains("Coffee").contains("Milk");
+        assertThat(lines[1]).contains("\"id\":11").doesNotContain("Milk");
+    }
+
+    @Test
+    @DisplayName("should write one CSV line per item with quoted and neutralized text")
+    void export_csv_writesOneLinePerItem() throws Exception {
+        when(saleRepository.streamExportRows(any(), any(), eq(1L), isNull(), eq(PaymentMethod.CASH), isNull(),
+                isNull())).thenReturn(Stream.of(row(10L, 100L, "Coffee", "2")));
+
+        String[] lines = export(SaleExportService.ExportFormat.CSV).split("\r\n");
+
+        assertThat(lines).hasSize(2);
+        assertThat(lines[1]).isEqualTo("10,2025-01-10T12:00Z,CASH,NOT_APPLICABLE,30.00,5,"
+                + "\"Jane, \"\"JJ\"\"\",\"'=cmd\",100,1,\"Coffee\",2,10.00,20.00");
+
+        List<String> header = parseCsvLine(lines[0]);
+        List<String> values = parseCsvLine(lines[1]);
+        assertThat(values).hasSameSizeAs(header);
+        Map<String, String> byHeader = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            byHeader.put(header.get(i), values.get(i));
+        }
+        assertThat(byHeader)
+                .containsEntry("sale_id", "10")
+                .containsEntry("sale_date", "2025-01-10T12:00Z")
+                .containsEntry("payment_method", "CASH")
+                .containsEntry("payment_status", "NOT_APPLICABLE")
+                .containsEntry("sale_total", "30.00")
+                .containsEntry("customer_id", "5")
+                .containsEntry("customer_name", "Jane, \"JJ\"")
+                .containsEntry("description", "'=cmd")
+                .containsEntry("item_id", "100")
+                .containsEntry("product_id", "1")
+                .containsEntry("product_name", "Coffee")
+                .containsEntry("quantity", "2")
+                .containsEntry("unit_price", "10.00")
+                .containsEntry("item_total", "20.00");
+    }
+
+    /** Splits one CSV line, unquoting quoted fields. */
+    private List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @Test
+    @DisplayName("should reject an unknown export format")
+    void exportFormat_unknown_throwsBusinessException() {
+        assertThatThrownBy(() -> SaleExportService.ExportFormat.from("xlsx"))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Invalid export format: xlsx");
+    }
+}
@@ -3,6 +3,9 @@ package com.flick.business.service;
 import com.flick.business.api.dto.request.commercial.SaleItemRequest;
 import com.flick.business.api.dto.request.commercial.SaleRequest;
 import com.flick.business.api.dto.response.commercial.SaleResponse;
+import com.flick.business.api.dto.response.common.CursorPageResponse;
+import com.flick.business.api.dto.response.common.GroupSummary;
+import com.flick.business.api.dto.response.common.PageResponse;
 import com.flick.business.core.entity.Customer;
 import com.flick.business.core.entity.GeneralSettings;
 import com.flick.business.core.entity.Product;
@@ -12,8 +15,8 @@ import com.flick.business.core.enums.PaymentMethod;
 import com.flick.business.core.enums.settings.StockControlType;
 import com.flick.business.exception.BusinessException;
 import com.flick.business.exception.ResourceNotFoundException;
-import com.flick.business.repository.CustomerRepository;
 import com.flick.business.repository.ProductRepository;
+import com.flick.business.repository.SaleItemRepository;
 import com.flick.business.repository.SaleRepository;
 import com.flick.business.service.security.AuthenticatedUserService;
 import org.junit.jupiter.api.BeforeEach;
@@ -24,10 +27,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -43,7 +52,7 @@ class SaleServiceTest {
     @Mock
     private ProductRepository productRepository;
     @Mock
-    private CustomerRepository customerRepository;
+    private SaleItemRepository saleItemRepository;
     @Mock
     private ProductService productService;
     @Mock
@@ -52,7 +61,19 @@ class SaleServiceTest {
     @Mock
     private GeneralSettingsService settingsService;
     @Mock
+    private DailySalesSummaryService dailySalesSummaryService;
+    @Mock
+    private DailyProductSalesService dailyProductSalesService;
+    @Mock
+    private ReceivablesSnapshotService receivablesSnapshotService;
+    @Mock
+    private ReportCacheService reportCacheService;
+    @Mock
     private AuthenticatedUserService authenticatedUserService;
+    @Mock
+    private DataVersionService dataVersionService;
+    @Mock
+    private DashboardStreamService dashboardStreamService;
 
     @InjectMocks
     private SaleService saleService;
@@ -89,7 +110,7 @@ class SaleServiceTest {
         generalSettings = new GeneralSettings();
         generalSettings.setId(1L);
         generalSettings.setStockControlType(StockControlType.GLOBAL);
-        when(settingsService.findEntity()).thenReturn(generalSettings);
+        lenient().when(settingsService.getStockControlType()).thenAnswer(invocation -> generalSettings.getStockControlType());
 
         user = User.builder()
                 .id(1L)
@@ -98,6 +119,8 @@ class SaleServiceTest {
                 .build();
         lenient().when(authenticatedUserService.getAuthenticatedUser()).thenReturn(user);
         lenient().when(authenticatedUserService.getAuthenticatedUserId()).thenReturn(1L);
+        lenient().when(productRepository.decrementStockIfAvailable(anyLong(), anyLong(), any(BigDecimal.class)))
+                .thenReturn(1);
     }
 
     @Nested
@@ -112,13 +135,12 @@ class SaleServiceTest {
             SaleItemRequest itemRequest = new SaleItemRequest(1L, new BigDecimal("5"));
             SaleRequest saleRequest = new SaleRequest(null, PaymentMethod.CASH, "", List.of(itemRequest));
 
-            when(productService.findEntityById(1L)).thenReturn(product1);
+            when(productService.findEntitiesByIds(anyCollection())).thenReturn(List.of(product1));
             when(saleRepository.save(any(Sale.class))).thenAnswer(inv -> inv.getArgument(0));
 
             saleService.registerSale(saleRequest);
 
-            verify(productRepository, never()).saveAll(anyList());
-            assertThat(product1.getStockQuantity()).isEqualByComparingTo("100");
+            verify(productRepository, never()).decrementStockIfAvailable(anyLong(), anyLong(), any(BigDecimal.class));
         }
 
         @Test
@@ -128,43 +150,104 @@ class SaleServiceTest {
             SaleRequest saleRequest = new SaleRequest(1L, PaymentMethod.ON_CREDIT, "Test sale", List.of(itemRequest));
 
             when(customerService.findEntityById(1L)).thenReturn(onCreditCustomer);
-            when(productService.findEntityById(1L)).thenReturn(product1);
+            when(productService.findEntitiesByIds(anyCollection())).thenReturn(List.of(product1));
             when(saleRepository.save(any(Sale.class))).thenAnswer(inv -> inv.getArgument(0));
 
             SaleResponse result = saleService.registerSale(saleRequest);
 
             assertThat(result).isNotNull();
             assertThat(result.totalValue()).isEqualByComparingTo("50.00");
-            assertThat(onCreditCustomer.getDebtBalance()).isEqualByComparingTo("50.00");
-            assertThat(product1.getStockQuantity()).isEqualByComparingTo("95");
+            verify(customerService).chargeCredit(eq(onCreditCustomer), argThat(v -> v.compareTo(new BigDecimal("50.00")) == 0));
+            verify(productRepository).decrementStockIfAvailable(eq(1L), eq(1L), argThat(q -> q.compareTo(new BigDecimal("5")) == 0));
 
             verify(saleRepository, times(1)).save(any(Sale.class));
         }
 
+        @Test
+        @DisplayName("should add the sale and its cost of goods to the daily summary")
+        void registerSale_recordsDailySummaryWithCostOfGoods() {
+            product1.setCostPrice(new BigDecimal("6.00"));
+            SaleItemRequest itemRequest = new SaleItemRequest(1L, new BigDecimal("3"));
+            SaleRequest saleRequest = new SaleRequest(null, PaymentMethod.CASH, "", List.of(itemRequest));
+
+            when(productService.findEntitiesByIds(anyCollection())).thenReturn(List.of(product1));
+            when(saleRepository.save(any(Sale.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            saleService.registerSale(saleRequest);
+
+            verify(dailySalesSummaryService).recordSale(
+                    argThat(sale -> sale.getTotalValue().compareTo(new BigDecimal("30.00")) == 0),
+                    argThat(cogs -> cogs.compareTo(new BigDecimal("18.00")) == 0));
+        }
+
+        @Test
+        @DisplayName("should record the product's cost on the sale item at sale time")
+        void registerSale_snapshotsUnitCostPriceOnItems() {
+            product1.setCostPrice(new BigDecimal("6.00"));
+            SaleItemRequest itemRequest = new SaleItemRequest(1L, new BigDecimal("3"));
+            SaleRequest saleRequest = new SaleRequest(null, PaymentMethod.CASH, "", List.of(itemRequest));
+
+            when(productService.findEntitiesByIds(anyCollection())).thenReturn(List.of(product1));
+            when(saleRepository.save(any(Sale.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            saleService.registerSale(saleRequest);
+            product1.setCostPrice(new BigDecimal("9.00"));
+
+            verify(saleRepository).save(argThat(sale -> sale.getItems().get(0).getUnitCostPrice()
+                    .compareTo(new BigDecimal("6.00")) == 0));
+        }
+
+        @Test
+        @DisplayName("should decrement stock in product order while keeping the items in request order")
+        void registerSale_decrementsStockInProductOrder() {
+            Product product2 = Product.builder()
+                    .id(2L)
+                    .name("Second Product")
+                    .salePrice(new BigDecimal("4.00"))
+                    .stockQuantity(new BigDecimal("100"))
+                    .build();
+            SaleRequest saleRequest = new SaleRequest(null, PaymentMethod.CASH, "", List.of(
+                    new SaleItemRequest(2L, new BigDecimal("1")),
+                    new SaleItemRequest(1L, new BigDecimal("1"))));
+
+            when(productService.findEntitiesByIds(anyCollection())).thenReturn(List.of(product1, product2));
+            when(saleRepository.save(any(Sale.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            saleService.registerSale(saleRequest);
+
+            var inOrder = inOrder(productRepository);
+            inOrder.verify(productRepository).decrementStockIfAvailable(eq(1L), eq(1L), any(BigDecimal.class));
+            inOrder.verify(productRepository).decrementStockIfAvailable(eq(2L), eq(1L), any(BigDecimal.class));
+            verify(saleRepository).save(argThat(sale -> sale.getItems().get(0).getProduct() == product2));
+        }
+
         @Test
         @DisplayName("should register a CASH sale successfully without a customer")
         void registerSale_cashSaleWithoutCustomer_isSuccessful() {
             SaleItemRequest itemRequest = new SaleItemRequest(1L, new BigDecimal("2"));
             SaleRequest saleRequest = new SaleRequest(null, PaymentMethod.CASH, "Cash sale", List.of(itemRequest));
 
-            when(productService.findEntityById(1L)).thenReturn(product1);
+            when(productService.findEntitiesByIds(anyCollection())).thenReturn(List.of(product1));
             when(saleRepository.save(any(Sale.class))).thenAnswer(inv -> inv.getArgument(0));
 
             SaleResponse result = saleService.registerSale(saleRequest);
 
             assertThat(result).isNotNull();
             assertThat(result.totalValue()).isEqualByComparingTo("20.00");
-            assertThat(product1.getStockQuantity()).isEqualByComparingTo("98");
+            assertThat(result.saleDate()).isNotNull();
+            verify(productRepository).addUnitsSold(any(Long[].class), any(BigDecimal[].class), eq(result.saleDate()),
+                    eq(1L));
+            verify(productRepository).decrementStockIfAvailable(eq(1L), eq(1L), argThat(q -> q.compareTo(new BigDecimal("2")) == 0));
 
             verify(customerService, never()).findEntityById(any());
-            verify(customerRepository, never()).save(any());
+            verify(customerService, never()).chargeCredit(any(), any());
             verify(saleRepository, times(1)).save(any(Sale.class));
         }
 
         @Test
         @DisplayName("should throw ResourceNotFoundException for a non-existent product")
         void registerSale_withNonExistentProduct_throwsResourceNotFoundException() {
-            when(productService.findEntityById(99L)).thenThrow(new ResourceNotFoundException("Product not found"));
+            when(productService.findEntitiesByIds(anyCollection())).thenReturn(Collections.emptyList());
             SaleItemRequest itemRequest = new SaleItemRequest(99L, new BigDecimal("1"));
             SaleRequest saleRequest = new SaleRequest(null, PaymentMethod.CASH, "", List.of(itemRequest));
 
@@ -173,11 +256,46 @@ class SaleServiceTest {
                     .hasMessageContaining("Product not found");
         }
 
+        @Test
+        @DisplayName("should report every missing product in a single exception")
+        void registerSale_withSeveralNonExistentProducts_reportsAllOfThem() {
+            when(productService.findEntitiesByIds(anyCollection())).thenReturn(List.of(product1));
+            SaleRequest saleRequest = new SaleRequest(null, PaymentMethod.CASH, "", List.of(
+                    new SaleItemRequest(1L, new BigDecimal("1")),
+                    new SaleItemRequest(98L, new BigDecimal("1")),
+                    new SaleItemRequest(99L, new BigDecimal("1"))));
+
+            assertThatThrownBy(() -> saleService.registerSale(saleRequest))
+                    .isInstanceOf(ResourceNotFoundException.class)
+                    .hasMessage("Products not found with IDs: 98, 99");
+
+            verifyNoInteractions(saleRepository);
+        }
+
+        @Test
+        @DisplayName("should merge duplicate product lines into a single sale item")
+        void registerSale_withDuplicateProductLines_mergesQuantities() {
+            when(productService.findEntitiesByIds(anyCollection())).thenReturn(List.of(product1));
+            when(saleRepository.save(any(Sale.class))).thenAnswer(inv -> inv.getArgument(0));
+            SaleRequest saleRequest = new SaleRequest(null, PaymentMethod.CASH, "", List.of(
+                    new SaleItemRequest(1L, new BigDecimal("2")),
+                    new SaleItemRequest(1L, new BigDecimal("3"))));
+
+            SaleResponse result = saleService.registerSale(saleRequest);
+
+            assertThat(result.items()).hasSize(1);
+            assertThat(result.items().get(0).quantity()).isEqualByComparingTo("5");
+            assertThat(result.totalValue()).isEqualByComparingTo("50.00");
+            verify(productService, times(1)).findEntitiesByIds(anyCollection());
+            verify(productRepository).addUnitsSold(aryEq(new Long[] { 1L }),
+                    aryEq(new BigDecimal[] { new BigDecimal("5") }), any(ZonedDateTime.class), eq(1L));
+        }
+
         @Test
         @DisplayName("should throw BusinessException for insufficient stock")
         void registerSale_withInsufficientStock_throwsBusinessException() {
             product1.setStockQuantity(new BigDecimal("2"));
-            when(productService.findEntityById(1L)).thenReturn(product1);
+            when(productService.findEntitiesByIds(anyCollection())).thenReturn(List.of(product1));
             SaleItemRequest itemRequest = new SaleItemRequest(1L, new BigDecimal("5"));
             SaleRequest saleRequest = new SaleRequest(null, PaymentMethod.CASH, "", List.of(itemRequest));
 
@@ -185,7 +303,24 @@ class SaleServiceTest {
                     .isInstanceOf(BusinessException.class)
                     .hasMessageContaining("Insufficient stock");
 
-            verifyNoInteractions(saleRepository, customerRepository);
+            verifyNoInteractions(saleRepository);
+            verify(customerService, never()).chargeCredit(any(), any());
+        }
+
+        @Test
+        @DisplayName("should throw BusinessException when a concurrent sale consumed the stock")
+        void registerSale_whenGuardedDecrementFails_throwsBusinessException() {
+            when(productService.findEntitiesByIds(anyCollection())).thenReturn(List.of(product1));
+            when(productRepository.decrementStockIfAvailable(1L, 1L, new BigDecimal("5"))).thenReturn(0);
+            when(productRepository.findStockQuantityById(1L)).thenReturn(new BigDecimal("3"));
+            SaleItemRequest itemRequest = new SaleItemRequest(1L, new BigDecimal("5"));
+            SaleRequest saleRequest = new SaleRequest(null, PaymentMethod.CASH, "", List.of(itemRequest));
+
+            assertThatThrownBy(() -> saleService.registerSale(saleRequest))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("Insufficient stock for product: Test Product. Available: 3");
+
+            verify(saleRepository, never()).save(any(Sale.class));
         }
 
         @Test
@@ -203,7 +338,7 @@ class SaleServiceTest {
         @DisplayName("should throw BusinessException for ON_CREDIT sale to a customer not enabled for credit")
         void registerSale_onCreditToCustomerNotEnabled_throwsBusinessException() {
             when(customerService.findEntityById(2L)).thenReturn(cashCustomer);
-            when(productService.findEntityById(1L)).thenReturn(product1);
+            when(productService.findEntitiesByIds(anyCollection())).thenReturn(List.of(product1));
             SaleItemRequest itemRequest = new SaleItemRequest(1L, new BigDecimal("1"));
             SaleRequest saleRequest = new SaleRequest(2L, PaymentMethod.ON_CREDIT, "", List.of(itemRequest));
 
@@ -217,13 +352,15 @@ class SaleServiceTest {
         void registerSale_onCreditExceedingLimit_throwsBusinessException() {
             onCreditCustomer.setCreditLimit(new BigDecimal("40.00"));
             when(customerService.findEntityById(1L)).thenReturn(onCreditCustomer);
-            when(productService.findEntityById(1L)).thenReturn(product1);
+            when(productService.findEntitiesByIds(anyCollection())).thenReturn(List.of(product1));
             SaleItemRequest itemRequest = new SaleItemRequest(1L, new BigDecimal("5"));
             SaleRequest saleRequest = new SaleRequest(1L, PaymentMethod.ON_CREDIT, "", List.of(itemRequest));
 
             assertThatThrownBy(() -> saleService.registerSale(saleRequest))
                     .isInstanceOf(BusinessException.class)
                     .hasMessageContaining("Credit limit exceeded");
+
+            verify(customerService, never()).chargeCredit(any(), any());
         }
 
         @Test
@@ -231,12 +368,187 @@ class SaleServiceTest {
         void registerSale_withEmptyItemList_throwsException() {
             SaleRequest saleRequest = new SaleRequest(1L, PaymentMethod.CASH, "", Collections.emptyList());
 
-            // A validação @NotEmpty no DTO deve pegar isso, mas podemos testar o
-            // comportamento do serviço se ele receber.
-            // O comportamento exato pode variar. Se for uma IllegalArgumentException, por
-            // exemplo:
+            // A validação @NotEmpty no DTO deve pegar isso, mas o serviço também se protege.
             assertThatThrownBy(() -> saleService.registerSale(saleRequest))
-                    .isInstanceOf(Exception.class); // Pode ser mais específico dependendo da sua validação
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("at least one item");
+        }
+    }
+
+    @Nested
+    @DisplayName("Sale Listing Scenarios")
+    class ListSales {
+
+        @Test
+        @DisplayName("should load the items of the whole page in a single query")
+        @SuppressWarnings("unchecked")
+        void listAll_loadsItemsForThePageInOneQuery() {
+            Sale first = Sale.builder().id(10L).totalValue(new BigDecimal("20.00")).build();
+            Sale second = Sale.builder().id(11L).totalValue(new BigDecimal("10.00")).build();
+            Sale withoutItems = Sale.builder().id(12L).totalValue(BigDecimal.ZERO).build();
+            when(saleRepository.findAll(any(Specification.class), any(Pageable.class)))
+                    .thenReturn(new PageImpl<>(List.of(first, second, withoutItems)));
+            when(saleItemRepository.findItemRowsBySaleIds(List.of(10L, 11L, 12L))).thenReturn(List.of(
+                    new Object[] { 10L, 100L, 1L, "Test Product", new BigDecimal("2"), new BigDecimal("10.00") },
+                    new Object[] { 11L, 101L, 1L, "Test Product", new BigDecimal("1"), new BigDecimal("10.00") }));
+
+            PageResponse<SaleResponse> result = saleService.listAll(null, null, null, null, null, null, null, 0, 10);
+
+            assertThat(result.getContent()).hasSize(3);
+            assertThat(result.getContent().get(0).items()).singleElement()
+                    .satisfies(item -> assertThat(item.totalValue()).isEqualByComparingTo("20.00"));
+            assertThat(result.getContent().get(1).items()).hasSize(1);
+            assertThat(result.getContent().get(2).items()).isEmpty();
+            verify(saleItemRepository, times(1)).findItemRowsBySaleIds(anyCollection());
+        }
+
+        @Test
+        @DisplayName("should return a cursor when more sales follow and never count")
+        @SuppressWarnings("unchecked")
+        void listByCursor_withMoreRows_returnsNextCursor() {
+            ZonedDateTime now = ZonedDateTime.parse("2025-01-10T12:00:00Z");
+            Sale newest = Sale.builder().id(12L).saleDate(now).totalValue(BigDecimal.TEN).build();
+            Sale middle = Sale.builder().id(11L).saleDate(now.minusHours(1)).totalValue(BigDecimal.TEN).build();
+            Sale oldest = Sale.builder().id(10L).saleDate(now.minusHours(2)).totalValue(BigDecimal.TEN).build();
+            when(saleRepository.findBy(any(Specification.class), any()))
+                    .thenReturn(List.of(newest, middle, oldest));
+            when(saleItemRepository.findItemRowsBySaleIds(List.of(12L, 11L))).thenReturn(List.of());
+
+            CursorPageResponse<SaleResponse> first = saleService.listByCursor(null, null, null, null, null, null,
+                    null, null, 2);
+
+            assertThat(first.content()).extracting(SaleResponse::id).containsExactly(12L, 11L);
+            assertThat(first.hasNext()).isTrue();
+            assertThat(first.nextCursor()).isNotBlank();
+            verify(saleRepository, never()).count(any(Specification.class));
+            verify(saleRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+
+            when(saleRepository.findBy(any(Specification.class), any())).thenReturn(List.of(oldest));
+            when(saleItemRepository.findItemRowsBySaleIds(List.of(10L))).thenReturn(List.of());
+
+            CursorPageResponse<SaleResponse> second = saleService.listByCursor(null, null, null, null, null, null,
+                    null, first.nextCursor(), 2);
+
+            assertThat(second.content()).extracting(SaleResponse::id).containsExactly(10L);
+            assertThat(second.hasNext()).isFalse();
+            assertThat(second.nextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("should reject a cursor issued for another order")
+        @SuppressWarnings("unchecked")
+        void listByCursor_withCursorOfAnotherOrder_throwsBusinessException() {
+            Sale sale = Sale.builder().id(10L).saleDate(ZonedDateTime.now()).totalValue(BigDecimal.TEN).build();
+            when(saleRepository.findBy(any(Specification.class), any())).thenReturn(List.of(sale, sale));
+            when(saleItemRepository.findItemRowsBySaleIds(anyCollection())).thenReturn(List.of());
+            String priceCursor = saleService.listByCursor(null, null, null, null, null, null, "price_desc", null, 1)
+                    .nextCursor();
+
+            assertThatThrownBy(() -> saleService.listByCursor(null, null, null, null, null, null, "date_desc",
+                    priceCursor, 1))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessage("Invalid cursor.");
+        }
+    }
+
+    @Nested
+    @DisplayName("Sale Summary Scenarios")
+    class SummarizeSales {
+
+        @Test
+        @DisplayName("should read aggregated rows instead of loading sales")
+        @SuppressWarnings("unchecked")
+        void getSummaryByGroup_byMonth_mapsAggregatedRows() {
+            when(dailySalesSummaryService.getZone()).thenReturn(ZoneId.of("America/Sao_Paulo"));
+            when(saleRepository.summarizeSalesByGroup(eq("month"), any(), any(), eq(1L), isNull(), isNull(), isNull(),
+                    eq("America/Sao_Paulo")))
+                    .thenReturn(List.<Object[]>of(new Object[] { "2025-01", "2025-01", new BigDecimal("150.00"), 3L,
+                            new BigDecimal("12") }));
+
+            List<GroupSummary> result = saleService.getSummaryByGroup(null, null, null, null, null, "month");
+
+            assertThat(result).singleElement().satisfies(summary -> {
+                assertThat(summary.getGroupKey()).isEqualTo("2025-01");
+                assertThat(summary.getTotalValue()).isEqualByComparingTo("150.00");
+                assertThat(summary.getSaleCount()).isEqualTo(3L);
+                assertThat(summary.getItemQuantity()).isEqualByComparingTo("12");
+            });
+            verify(saleRepository, never()).findAll(any(Specification.class));
+        }
+
+        @Test
+        @DisplayName("should group by category over sale items")
+        void getSummaryByGroup_byCategory_usesItemAggregation() {
+            when(saleRepository.summarizeItemsByGroup(eq("category"), any(), any(), eq(1L), isNull(), eq("CASH"),
+                    isNull())).thenReturn(List.of());
+
+            saleService.getSummaryByGroup(null, null, null, "cash", null, "category");
+
+            verify(saleRepository, never()).summarizeSalesByGroup(any(), any(), any(), any(), any(), any(), any(),
+                    any());
+        }
+
+        @Test
+        @DisplayName("should throw BusinessException for an unknown groupBy")
+        void getSummaryByGroup_withUnknownGroup_throwsBusinessException() {
+            assertThatThrownBy(() -> saleService.getSummaryByGroup(null, null, null, null, null, "year"))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("Invalid groupBy parameter");
+        }
+    }
+
+    @Nested
+    @DisplayName("Sale Deletion Scenarios")
+    class DeleteSale {
+
+        @Test
+        @DisplayName("should reverse and delete a sale with set-based statements")
+        void deletePermanently_reversesStockAndDebtInBulk() {
+            when(saleRepository.lockOwnedIds(Set.of(10L), 1L)).thenReturn(List.of(10L));
+
+            saleService.deletePermanently(10L);
+
+            verify(productRepository).restockFromSales(Set.of(10L), 1L);
+            verify(productRepository).subtractUnitsSold(Set.of(10L), 1L);
+            verify(customerService).reverseDebtOfPendingSales(Set.of(10L));
+            var inOrder = inOrder(reportCacheService, dailySalesSummaryService, dailyProductSalesService,
+                    receivablesSnapshotService, saleItemRepository);
+            inOrder.verify(reportCacheService).evictSales(Set.of(10L), 1L);
+            inOrder.verify(dailySalesSummaryService).reverseSales(Set.of(10L), 1L);
+            inOrder.verify(dailyProductSalesService).reverseSales(Set.of(10L), 1L);
+            inOrder.verify(receivablesSnapshotService).reverseSales(Set.of(10L), 1L);
+            inOrder.verify(saleItemRepository).deleteBySaleIds(Set.of(10L));
+            verify(saleRepository).deleteOwnedByIds(Set.of(10L), 1L);
+            verify(saleRepository, never()).delete(any(Sale.class));
+            verify(productRepository, never()).saveAll(any());
+        }
+
+        @Test
+        @DisplayName("should delete many sales with the same number of statements as one")
+        void deleteAllPermanently_usesOneStatementPerStep() {
+            List<Long> saleIds = List.of(10L, 11L, 12L, 11L);
+            when(saleRepository.lockOwnedIds(anyCollection(), eq(1L))).thenReturn(List.of(10L, 11L, 12L));
+
+            saleService.deleteAllPermanently(saleIds);
+
+            verify(productRepository, times(1)).restockFromSales(argThat(ids -> ids.size() == 3), eq(1L));
+            verify(customerService, times(1)).reverseDebtOfPendingSales(anyCollection());
+            verify(saleItemRepository, times(1)).deleteBySaleIds(anyCollection());
+            verify(saleRepository, times(1)).deleteOwnedByIds(anyCollection(), eq(1L));
+        }
+
+        @Test
+        @DisplayName("should delete nothing when any sale does not belong to the user")
+        void deleteAllPermanently_withUnknownSales_throwsResourceNotFoundException() {
+            when(saleRepository.lockOwnedIds(anyCollection(), eq(1L))).thenReturn(List.of(10L));
+
+            assertThatThrownBy(() -> saleService.deleteAllPermanently(List.of(10L, 98L, 99L)))
+                    .isInstanceOf(ResourceNotFoundException.class)
+                    .hasMessage("Sales not found with IDs: 98, 99");
+
+            verifyNoInteractions(saleItemRepository);
+            verify(productRepository, never()).restockFromSales(anyCollection(), anyLong());
+            verify(saleRepository, never()).deleteOwnedByIds(anyCollection(), anyLong());
         }
     }
 }